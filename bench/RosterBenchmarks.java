@@ -0,0 +1,349 @@
+// RosterBenchmarks.java
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Benchmark harness for the roster hot paths: loading and saving (CSV and binary), name lookups and inserts
+// at scale, and per-student grade calculations. Like JMH, every benchmark runs in its own freshly started
+// JVM (a fork), so the JIT profile and heap left behind by one benchmark never skew the next, and is warmed
+// up for a minimum number of iterations and a minimum time before it is measured. Each fork reports the
+// mean time per operation and the bytes allocated per operation on the measuring thread (the same figure as
+// JMH's "-prof gc"). Results are printed as CSV, one row per fork, and can be appended to a file and
+// compared across commits.
+//
+// Usage:
+//   java -cp <classes> RosterBenchmarks [--students 1000,10000,100000] [--max-scores 500] [--forks 2]
+//                                       [--warmup 5] [--warmup-ms 2000] [--iterations 10]
+//                                       [--benchmark <name>] [--label <commit>] [--out results.csv]
+//   java -cp <classes> RosterBenchmarks --compare baseline.csv candidate.csv
+// --forks 0 runs every benchmark in this JVM, which is only useful to debug the harness.
+public class RosterBenchmarks {
+
+    private static final String CSV_HEADER = "label,benchmark,students,ns_per_op,ops_per_sec,alloc_bytes_per_op";
+    private static final List<String> BENCHMARKS = List.of(
+            "csv.saveRoster", "csv.loadRoster", "binary.saveRoster", "binary.loadRoster",
+            "service.findStudent", "service.addStudent", "student.calculateAverage", "student.getLetterScore");
+    private static final int LOOKUPS_PER_ITERATION = 100_000;
+    private static final int INSERTS_PER_ITERATION = 10_000;
+    // A second instance of the standard policy: switching a student between the two clears its cached grade
+    // without changing the result, so the grade benchmarks measure the calculation rather than the cache.
+    private static final GradingPolicy STANDARD_COPY = GradingPolicy.standard(LetterScale.STANDARD);
+
+    // Results are folded into this field so the JIT cannot eliminate the measured work.
+    private static volatile long sink;
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    private final int warmupIterations;
+    private final long warmupNanos;
+    private final int measuredIterations;
+    private final String label;
+    private final List<String> results = new ArrayList<>();
+
+    private RosterBenchmarks(int warmupIterations, long warmupMillis, int measuredIterations, String label) {
+        this.warmupIterations = warmupIterations;
+        this.warmupNanos = warmupMillis * 1_000_000;
+        this.measuredIterations = measuredIterations;
+        this.label = label;
+    }
+
+    static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        if (options.containsKey("compare")) {
+            compare(Path.of(options.get("compare")), Path.of(options.get("compare.candidate")));
+            return;
+        }
+
+        int[] sizes = Arrays.stream(options.getOrDefault("students", "1000,10000,100000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .toArray();
+        int maxScores = Integer.parseInt(options.getOrDefault("max-scores", "500"));
+        int forks = Integer.parseInt(options.getOrDefault("forks", "2"));
+        List<String> selected = options.containsKey("benchmark") ? List.of(options.get("benchmark").split(",")) : BENCHMARKS;
+        for (String benchmark : selected) {
+            if (!BENCHMARKS.contains(benchmark)) {
+                throw new IllegalArgumentException("Unknown benchmark: " + benchmark + "; expected one of " + BENCHMARKS);
+            }
+        }
+        RosterBenchmarks benchmarks = new RosterBenchmarks(
+                Integer.parseInt(options.getOrDefault("warmup", "5")),
+                Long.parseLong(options.getOrDefault("warmup-ms", "2000")),
+                Integer.parseInt(options.getOrDefault("iterations", "10")),
+                options.getOrDefault("label", "local"));
+
+        // A fork is started with the options it needs and prints its rows without the header.
+        boolean isFork = options.containsKey("fork");
+        if (!isFork) {
+            System.out.println(CSV_HEADER);
+        }
+        for (int size : sizes) {
+            for (String benchmark : selected) {
+                if (isFork || forks == 0) {
+                    benchmarks.runInThisJvm(benchmark, size, maxScores);
+                } else {
+                    for (int fork = 0; fork < forks; fork++) {
+                        benchmarks.runInFork(options, benchmark, size);
+                    }
+                }
+            }
+        }
+
+        String out = options.get("out");
+        if (out != null) {
+            Path outFile = Path.of(out);
+            boolean writeHeader = !Files.exists(outFile) || Files.size(outFile) == 0;
+            try (PrintStream stream = new PrintStream(Files.newOutputStream(outFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                if (writeHeader) stream.println(CSV_HEADER);
+                benchmarks.results.forEach(stream::println);
+            }
+        }
+    }
+
+    // Runs one benchmark in a new JVM with this JVM's classpath and flags. The fork prints its output here and
+    // hands its result rows back through a temporary results file.
+    private void runInFork(Map<String, String> options, String benchmark, int students) throws Exception {
+        Path forkResults = Files.createTempFile("roster-bench", ".csv");
+        Map<String, String> forkOptions = new LinkedHashMap<>(options);
+        forkOptions.put("out", forkResults.toString());
+        forkOptions.put("fork", "true");
+        forkOptions.put("benchmark", benchmark);
+        forkOptions.put("students", Integer.toString(students));
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(RosterBenchmarks.class.getName());
+        forkOptions.forEach((name, value) -> command.addAll(List.of("--" + name, value)));
+
+        try {
+            int status = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (status != 0) {
+                throw new IOException("Benchmark fork for " + benchmark + " with " + students + " students exited with status " + status);
+            }
+            for (String row : Files.readAllLines(forkResults)) {
+                if (!row.isBlank() && !row.startsWith("label,")) {
+                    results.add(row);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(forkResults);
+        }
+    }
+
+    // Sets up and measures one benchmark. Files go to a temporary directory that is removed afterwards, and the
+    // roster service is closed, so running several benchmarks in one JVM leaves nothing behind between them.
+    private void runInThisJvm(String benchmark, int students, int maxScores) throws Exception {
+        List<Student> roster = generateRoster(students, maxScores, new Random(42));
+        Path directory = Files.createTempDirectory("roster-bench");
+        try {
+            FileRosterStorage csv = new FileRosterStorage(directory.resolve("bench-" + students + ".csv").toString());
+            FileRosterStorage binary = new FileRosterStorage(directory.resolve("bench-" + students + ".bin").toString());
+            switch (benchmark) {
+                case "csv.saveRoster" -> measure(benchmark, students, 1, () -> csv.saveRoster(roster));
+                case "csv.loadRoster" -> {
+                    csv.saveRoster(roster);
+                    measure(benchmark, students, 1, () -> sink += csv.readRoster().size());
+                }
+                case "binary.saveRoster" -> measure(benchmark, students, 1, () -> binary.saveRoster(roster));
+                case "binary.loadRoster" -> {
+                    binary.saveRoster(roster);
+                    measure(benchmark, students, 1, () -> sink += binary.readRoster().size());
+                }
+                case "service.findStudent", "service.addStudent" -> {
+                    csv.saveRoster(roster);
+                    RosterService service = new RosterService(csv, Integer.MAX_VALUE, false);
+                    try {
+                        measureService(benchmark, students, service, roster);
+                    } finally {
+                        service.close();
+                    }
+                }
+                case "student.calculateAverage" -> measureGrades(benchmark, students, roster, () -> {
+                    double total = 0;
+                    for (Student student : roster) {
+                        total += student.calculateAverage();
+                    }
+                    sink += (long) total;
+                });
+                case "student.getLetterScore" -> measureGrades(benchmark, students, roster, () -> {
+                    long total = 0;
+                    for (Student student : roster) {
+                        total += student.getLetterScore().charAt(0);
+                    }
+                    sink += total;
+                });
+                default -> throw new IllegalArgumentException("Unknown benchmark: " + benchmark);
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private void measureService(String benchmark, int students, RosterService service, List<Student> roster) throws Exception {
+        if (benchmark.equals("service.findStudent")) {
+            String[] names = new String[LOOKUPS_PER_ITERATION];
+            Random random = new Random(7);
+            for (int i = 0; i < names.length; i++) {
+                names[i] = roster.get(random.nextInt(roster.size())).getName().toUpperCase(Locale.ROOT);
+            }
+            measure(benchmark, students, LOOKUPS_PER_ITERATION, () -> {
+                long found = 0;
+                for (String name : names) {
+                    if (service.findStudent(name) != null) found++;
+                }
+                sink += found;
+            });
+        } else {
+            int[] nextStudent = {0};
+            measure(benchmark, students, INSERTS_PER_ITERATION, () -> {
+                for (int i = 0; i < INSERTS_PER_ITERATION; i++) {
+                    service.addStudent("Added Student " + nextStudent[0]++);
+                }
+            });
+        }
+    }
+
+    // Students cache their grade, so before every iteration each student is switched to the other, equivalent
+    // standard policy. That clears the cache outside the timed region, and every timed read grades afresh.
+    private void measureGrades(String benchmark, int students, List<Student> roster, Operation operation) throws Exception {
+        boolean[] useCopy = {false};
+        measure(benchmark, students, students, () -> {
+            useCopy[0] = !useCopy[0];
+            for (Student student : roster) {
+                student.setGradingPolicy(useCopy[0] ? STANDARD_COPY : GradingPolicy.STANDARD);
+            }
+        }, operation);
+    }
+
+    private void measure(String benchmark, int students, int opsPerIteration, Operation operation) throws Exception {
+        measure(benchmark, students, opsPerIteration, () -> { }, operation);
+    }
+
+    // Warms the operation up for at least warmupIterations and warmupNanos, then times measuredIterations runs
+    // of it and records one result row. The setup runs before every iteration and is not timed.
+    private void measure(String benchmark, int students, int opsPerIteration, Operation setup, Operation operation) throws Exception {
+        long warmupStart = System.nanoTime();
+        for (int i = 0; i < warmupIterations || System.nanoTime() - warmupStart < warmupNanos; i++) {
+            setup.run();
+            operation.run();
+        }
+        long elapsed = 0;
+        long allocated = 0;
+        boolean allocationTracked = allocatedBytes() >= 0;
+        for (int i = 0; i < measuredIterations; i++) {
+            setup.run();
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            operation.run();
+            elapsed += System.nanoTime() - start;
+            allocated += allocatedBytes() - allocatedBefore;
+        }
+
+        double ops = (double) measuredIterations * opsPerIteration;
+        double nsPerOp = elapsed / ops;
+        String row = String.format(Locale.ROOT, "%s,%s,%d,%.1f,%.1f,%.1f", label, benchmark, students,
+                nsPerOp, 1e9 / nsPerOp, allocationTracked ? allocated / ops : -1.0);
+        results.add(row);
+        System.out.println(row);
+    }
+
+    // Bytes allocated so far by the current thread, or -1 if the JVM does not track it.
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    // Builds a reproducible roster with up to maxScores random 0-100 scores per student.
+    private static List<Student> generateRoster(int students, int maxScores, Random random) {
+        List<Student> roster = new ArrayList<>(students);
+        int[] scores = new int[maxScores];
+        for (int i = 0; i < students; i++) {
+            Student student = new Student(String.format(Locale.ROOT, "Student %07d", i));
+            int count = maxScores == 0 ? 0 : random.nextInt(maxScores + 1);
+            for (int j = 0; j < count; j++) {
+                scores[j] = random.nextInt(101);
+            }
+            student.setScores(scores, count);
+            roster.add(student);
+        }
+        return roster;
+    }
+
+    // Prints the change in time per operation for every benchmark present in both result files.
+    private static void compare(Path baseline, Path candidate) throws IOException {
+        Map<String, Double> before = readResults(baseline);
+        Map<String, Double> after = readResults(candidate);
+        System.out.printf(Locale.ROOT, "%-28s %10s %14s %14s %9s%n", "benchmark", "students", "baseline ns", "candidate ns", "change");
+        for (Map.Entry<String, Double> entry : after.entrySet()) {
+            Double old = before.get(entry.getKey());
+            if (old == null) continue;
+            String[] key = entry.getKey().split(",");
+            System.out.printf(Locale.ROOT, "%-28s %10s %14.1f %14.1f %+8.1f%%%n", key[0], key[1], old, entry.getValue(),
+                    (entry.getValue() - old) / old * 100);
+        }
+    }
+
+    // Reads "benchmark,students" -> ns/op, averaged over the rows of every fork.
+    private static Map<String, Double> readResults(Path file) throws IOException {
+        Map<String, double[]> totals = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("label,")) continue;
+                String[] columns = line.split(",");
+                double[] total = totals.computeIfAbsent(columns[1] + "," + columns[2], key -> new double[2]);
+                total[0] += Double.parseDouble(columns[3]);
+                total[1]++;
+            }
+        }
+        Map<String, Double> results = new LinkedHashMap<>();
+        totals.forEach((key, total) -> results.put(key, total[0] / total[1]));
+        return results;
+    }
+
+    // Accepts "--name value" pairs; "--compare a b" takes two values.
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            options.put(name, args[++i]);
+            if (name.equals("compare")) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("--compare needs two result files");
+                options.put("compare.candidate", args[++i]);
+            }
+        }
+        return options;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -1,44 +1,96 @@
 // AutosaveTask.java
-public class AutosaveTask implements Runnable {
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Debounced background writer for the roster.
+// RosterService calls requestSave() whenever it is modified. The write happens once edits have been
+// quiet for DEBOUNCE_MS (but no later than MAX_DELAY_MS after the first unsaved edit), so a burst
+// of edits turns into a single file write and idle periods write nothing at all.
+public final class AutosaveTask implements Runnable {
+
+    private static final long DEBOUNCE_MS = 2000;
+    private static final long MAX_DELAY_MS = 10000;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    // Time from the first edit a save covers to the end of that save.
+    private static final LatencyHistogram SAVE_LAG = Metrics.histogram("autosave.lag");
+    private static final LongAdder SAVES = Metrics.counter("autosave.saves");
 
     private final RosterService rosterService;
-    // Flag to signal the thread to stop processing
-    private volatile boolean isStopped = false;
-    private static final int AUTOSAVE_INTERVAL_MS = 60000;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this: the save currently waiting to run, and when the first edit it covers was made.
+    private ScheduledFuture<?> pendingSave;
+    private long firstRequestNanos;
+    private boolean isStopped = false;
+    private volatile Runnable saveListener;
 
     public AutosaveTask(RosterService rosterService) {
         this.rosterService = rosterService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "roster-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rosterService.setDirtyListener(this::requestSave);
+    }
+
+    // Registers a callback run on the autosave thread after each scheduled save attempt, e.g. to update a
+    // status display.
+    public void setSaveListener(Runnable listener) {
+        this.saveListener = listener;
+    }
+
+    // Schedules a save, pushing back one that is already pending so that bursts of edits coalesce.
+    public synchronized void requestSave() {
+        if (isStopped) return;
+
+        long now = System.nanoTime();
+        long delayMs = DEBOUNCE_MS;
+        if (pendingSave == null) {
+            firstRequestNanos = now;
+        } else {
+            pendingSave.cancel(false);
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(now - firstRequestNanos);
+            delayMs = Math.max(0, Math.min(DEBOUNCE_MS, MAX_DELAY_MS - waitedMs));
+        }
+        pendingSave = scheduler.schedule(this, delayMs, TimeUnit.MILLISECONDS);
     }
 
-    // Suppresses the IDE warning regarding the use of Thread.sleep() inside a loop.
-    @SuppressWarnings("BusyWait")
     @Override
     public void run() {
-        // The loop continues until the stop flag is set.
-        while (!isStopped) {
-            try {
-                // Pause the thread for the defined interval
-                Thread.sleep(AUTOSAVE_INTERVAL_MS);
-
-                // Save data if the stop flag was not set during the sleep period
-                if (!isStopped) {
-                    rosterService.saveData();
-                    System.out.println("LOG: Autosave complete.");
-                }
-
-            } catch (InterruptedException e) {
-                // If interrupted, gracefully set the stop flag and exit the loop.
-                isStopped = true;
-                System.out.println("LOG: Autosave thread interrupted and stopping.");
-                break; // Exit the while loop immediately upon interruption
-            }
+        long firstRequest;
+        synchronized (this) {
+            pendingSave = null;
+            firstRequest = firstRequestNanos;
+        }
+        if (rosterService.saveIfDirty()) {
+            SAVE_LAG.recordSince(firstRequest);
+            SAVES.increment();
+            Log.info("Autosave complete.");
+        }
+        Runnable listener = saveListener;
+        if (listener != null) {
+            listener.run();
         }
-        System.out.println("LOG: Autosave thread gracefully shut down.");
     }
 
-    // Signals the thread to stop running.
-    public void stop() {
-        isStopped = true;
-        // The thread running this task must be interrupted externally (in GradeTrackerApp.stop()).
+    // Stops the background writer and flushes any unsaved changes before returning.
+    public void stop() throws InterruptedException {
+        synchronized (this) {
+            isStopped = true;
+            if (pendingSave != null) {
+                pendingSave.cancel(false);
+                pendingSave = null;
+            }
+        }
+        scheduler.shutdown();
+        // Wait for a save that was already running, then write whatever it did not cover.
+        scheduler.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        rosterService.saveIfDirty();
+        Log.info("Autosave gracefully shut down.");
     }
-}
\ No newline at end of file
+}
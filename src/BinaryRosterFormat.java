@@ -0,0 +1,170 @@
+// BinaryRosterFormat.java
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Compact, versioned binary roster layout:
+//   header   magic, version, student count, offset of the score section, offset of the name section
+//   entries  one fixed-size entry per student: name offset and length, score offset and count, sum, min, max
+//   scores   one byte per score, each student's scores stored contiguously
+//   names    the student names as UTF-8
+// Loading maps the file and hands out students whose scores stay in the mapping until they are
+// first edited, so startup cost is proportional to the number of students, not the number of scores.
+public final class BinaryRosterFormat {
+
+    public static final int MAGIC = 0x47545242; // "GTRB"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8;
+    private static final int ENTRY_SIZE = 8 + 4 + 8 + 4 + 8 + 1 + 1 + 2;
+
+    private BinaryRosterFormat() {
+    }
+
+    // Maps the file and passes every student to the consumer in roster order.
+    public static void read(Path path, Consumer<Student> consumer) throws IOException {
+        MappedRoster roster = MappedRoster.open(path);
+        for (int i = 0; i < roster.count; i++) {
+            Student student = new Student(roster.name(i));
+            roster.attach(i, student);
+            consumer.accept(student);
+        }
+    }
+
+    // Points the students at the scores of a file just written from them, in the same order, so that
+    // scores copied to the heap by edits can be released. Fails without changing anyone if the file
+    // does not list the same students.
+    public static void reattach(Path path, List<Student> students) throws IOException {
+        MappedRoster roster = MappedRoster.open(path);
+        if (roster.count != students.size()) {
+            throw new IOException("Binary roster holds " + roster.count + " students, expected " + students.size());
+        }
+        for (int i = 0; i < roster.count; i++) {
+            if (!roster.name(i).equals(students.get(i).getName())) {
+                throw new IOException("Binary roster entry " + i + " does not match the roster");
+            }
+        }
+        for (int i = 0; i < roster.count; i++) {
+            roster.attach(i, students.get(i));
+        }
+    }
+
+    // Writes the roster in the binary layout through the snapshot writer, which must already be open.
+    public static void write(List<Student> roster, SnapshotWriter writer) throws IOException {
+        long totalScores = 0;
+        for (Student student : roster) {
+            totalScores += student.getScoreCount();
+        }
+        long scoreSection = HEADER_SIZE + (long) roster.size() * ENTRY_SIZE;
+        long nameSection = scoreSection + totalScores;
+
+        writer.putInt(MAGIC);
+        writer.putInt(VERSION);
+        writer.putInt(roster.size());
+        writer.putLong(scoreSection);
+        writer.putLong(nameSection);
+
+        long nameOffset = 0;
+        long scoreOffset = 0;
+        for (Student student : roster) {
+            int nameLength = SnapshotWriter.utf8Length(student.getName());
+            writer.putLong(nameOffset);
+            writer.putInt(nameLength);
+            writer.putLong(scoreOffset);
+            writer.putInt(student.getScoreCount());
+            writer.putLong(student.getScoreSum());
+            writer.putByte(student.getMinScore());
+            writer.putByte(student.getMaxScore());
+            writer.putByte(0);
+            writer.putByte(0);
+            nameOffset += nameLength;
+            scoreOffset += student.getScoreCount();
+        }
+        for (Student student : roster) {
+            int count = student.getScoreCount();
+            for (int i = 0; i < count; i++) {
+                writer.putByte(student.getScore(i));
+            }
+        }
+        for (Student student : roster) {
+            writer.putName(student.getName());
+        }
+    }
+
+    // A validated mapping of a binary roster file.
+    private static final class MappedRoster {
+        final MappedByteBuffer map;
+        final int count;
+        final long scoreSection;
+        final long nameSection;
+
+        private MappedRoster(MappedByteBuffer map, int count, long scoreSection, long nameSection) {
+            this.map = map;
+            this.count = count;
+            this.scoreSection = scoreSection;
+            this.nameSection = nameSection;
+        }
+
+        static MappedRoster open(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Binary roster is too large to map: " + size + " bytes");
+                }
+                // The mapping stays valid after the channel is closed, for as long as students reference it.
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (size < HEADER_SIZE || map.getInt(0) != MAGIC) {
+                    throw new IOException("Not a binary roster file: " + path);
+                }
+                int version = map.getInt(4);
+                if (version != VERSION) {
+                    throw new IOException("Unsupported binary roster version " + version);
+                }
+                int count = map.getInt(8);
+                long scoreSection = map.getLong(12);
+                long nameSection = map.getLong(20);
+                if (count < 0 || HEADER_SIZE + (long) count * ENTRY_SIZE > scoreSection
+                        || scoreSection > nameSection || nameSection > size) {
+                    throw new IOException("Corrupt binary roster header");
+                }
+                MappedRoster roster = new MappedRoster(map, count, scoreSection, nameSection);
+                for (int i = 0; i < count; i++) {
+                    roster.check(i);
+                }
+                return roster;
+            }
+        }
+
+        private void check(int i) throws IOException {
+            int entry = HEADER_SIZE + i * ENTRY_SIZE;
+            long nameOffset = map.getLong(entry);
+            int nameLength = map.getInt(entry + 8);
+            long scoreOffset = map.getLong(entry + 12);
+            int scoreCount = map.getInt(entry + 20);
+            // Offsets are relative to their section and must stay inside it; written this way round, none of
+            // the bounds can overflow.
+            if (nameOffset < 0 || nameLength < 0 || nameOffset > map.capacity() - nameSection - nameLength
+                    || scoreOffset < 0 || scoreCount < 0 || scoreOffset > nameSection - scoreSection - scoreCount) {
+                throw new IOException("Corrupt binary roster entry " + i);
+            }
+        }
+
+        String name(int i) {
+            int entry = HEADER_SIZE + i * ENTRY_SIZE;
+            byte[] nameBytes = new byte[map.getInt(entry + 8)];
+            map.get((int) (nameSection + map.getLong(entry)), nameBytes);
+            return new String(nameBytes, StandardCharsets.UTF_8);
+        }
+
+        void attach(int i, Student student) {
+            int entry = HEADER_SIZE + i * ENTRY_SIZE;
+            student.attachScores(map, (int) (scoreSection + map.getLong(entry + 12)), map.getInt(entry + 20),
+                    map.getLong(entry + 24), map.get(entry + 32) & 0xFF, map.get(entry + 33) & 0xFF);
+        }
+    }
+}
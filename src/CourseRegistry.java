@@ -0,0 +1,352 @@
+// CourseRegistry.java
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// The school's rosters, sharded by course: one RosterService per course or section, each with its own roster
+// file in a courses directory (<id>.csv, or <id>.bin for binary rosters).
+// A course is loaded the first time it is asked for and saved on its own, so loading, saving or looking up one
+// course costs the same however many other courses there are. A course is loaded by a task that the first
+// caller runs outside the course map, so loading one course never blocks lookups of the others.
+// Queries across courses (a student's GPA, the school-wide grade distribution) run on every course in parallel
+// on the common fork/join pool. They use a loaded course as it is, with a RosterStatistics kept per course for
+// the distributions, and stream the roster file of any other course without loading it.
+public class CourseRegistry implements Closeable {
+
+    public static final String DEFAULT_DIRECTORY = "courses";
+
+    // Course ids become file names, so they are kept to a safe subset.
+    private static final Pattern COURSE_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]*");
+
+    private final Path directory;
+    private final int maxStudents;
+    private final boolean journaled;
+    private final Map<String, Course> courses = new ConcurrentHashMap<>();
+
+    public CourseRegistry(Path directory, int maxStudents, boolean journaled) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxStudents = maxStudents;
+        this.journaled = journaled;
+    }
+
+    // The storage for a course: its existing roster file, or a new CSV file if it has none yet.
+    public static FileRosterStorage storageFor(Path directory, String courseId) {
+        if (!COURSE_ID.matcher(courseId).matches()) {
+            throw new IllegalArgumentException("Invalid course id: " + courseId);
+        }
+        Path binary = directory.resolve(courseId + ".bin");
+        return new FileRosterStorage((Files.exists(binary) ? binary : directory.resolve(courseId + ".csv")).toString());
+    }
+
+    // Every course with a roster file, in id order.
+    public SortedSet<String> courseIds() {
+        SortedSet<String> ids = new TreeSet<>(courses.keySet());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{csv,bin}")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String id = name.substring(0, name.length() - 4);
+                if (COURSE_ID.matcher(id).matches()) {
+                    ids.add(id);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ids;
+    }
+
+    public boolean hasCourse(String courseId) {
+        return courses.containsKey(courseId) || Files.exists(Path.of(storageFor(directory, courseId).getFileName()));
+    }
+
+    // The roster of an existing course, loading it on first use. A roster file that cannot be read is
+    // reported instead of being treated as an empty course.
+    public RosterService course(String courseId) {
+        return holder(courseId).roster();
+    }
+
+    // Starts a new, empty course and writes its (empty) roster file.
+    public RosterService createCourse(String courseId) {
+        if (hasCourse(courseId)) {
+            throw new IllegalArgumentException("Course already exists: " + courseId);
+        }
+        Course created = new Course(courseId);
+        if (courses.putIfAbsent(courseId, created) != null) {
+            throw new IllegalArgumentException("Course already exists: " + courseId);
+        }
+        RosterService course = created.roster();
+        course.saveData();
+        return course;
+    }
+
+    public boolean isLoaded(String courseId) {
+        Course course = courses.get(courseId);
+        return course != null && course.loadedRoster() != null;
+    }
+
+    // Saves the course if it has unsaved changes and drops it from memory; it is loaded again when next used.
+    public void unload(String courseId) {
+        Course course = courses.remove(courseId);
+        if (course != null) {
+            course.close();
+        }
+    }
+
+    // Saves every loaded course with unsaved changes, in parallel (a journaled course only flushes its journal).
+    // Returns the number of courses that could not be saved; one that another thread saved meanwhile counts as saved.
+    public int saveAll() {
+        return (int) courses.values().parallelStream()
+                .map(Course::loadedRoster)
+                .filter(course -> course != null && course.isDirty() && !course.saveIfDirty() && course.isDirty())
+                .count();
+    }
+
+    // The student's grade in each course they are enrolled in, by course id. Courses that are not loaded are
+    // searched on disk and stay unloaded.
+    public Map<String, Grade> gradesOf(String name) {
+        Map<String, Grade> grades = new ConcurrentHashMap<>();
+        String key = RosterService.key(name);
+        courseIds().parallelStream().forEach(courseId -> {
+            Course course = currentHolder(courseId);
+            if (course != null) {
+                Student student = course.roster().findStudent(name);
+                if (student != null && student.getScoreCount() > 0) {
+                    grades.put(courseId, student.getGrade());
+                }
+            } else {
+                forEachStoredStudent(courseId, student -> {
+                    if (RosterService.key(student.getName()).equals(key) && student.getScoreCount() > 0) {
+                        grades.put(courseId, student.getGrade());
+                    }
+                });
+            }
+        });
+        return new TreeMap<>(grades);
+    }
+
+    // The student's grade point average on a 4.0 scale, every graded course counting equally, or empty if
+    // they have no scores in any course.
+    public OptionalDouble gpaOf(String name) {
+        return gradesOf(name).values().stream().mapToInt(grade -> gradePoints(grade.getLetter())).average();
+    }
+
+    // Number of graded students per rounded average across every course, indexed 0-100. A student enrolled
+    // in several courses is counted once per course.
+    public int[] getHistogram() {
+        return distribution().histogram;
+    }
+
+    // Number of graded students per letter grade across every course, in letter order.
+    public Map<String, Integer> getLetterCounts() {
+        return distribution().letterCounts;
+    }
+
+    // Mean of every graded course average across the school, or 0.0 if nobody is graded yet.
+    public double getMean() {
+        Distribution distribution = distribution();
+        return distribution.graded == 0 ? 0.0 : distribution.averageSum / distribution.graded;
+    }
+
+    // Saves and closes every loaded course.
+    @Override
+    public void close() {
+        courses.values().parallelStream().forEach(Course::close);
+        courses.clear();
+    }
+
+    // The holder of an existing course, created on first use. Creating it only creates the loading task,
+    // so nothing slow runs inside the map.
+    private Course holder(String courseId) {
+        Course course = courses.get(courseId);
+        if (course != null) return course;
+        if (!hasCourse(courseId)) {
+            throw new IllegalArgumentException("No such course: " + courseId);
+        }
+        return courses.computeIfAbsent(courseId, Course::new);
+    }
+
+    // The holder of a course that is loaded (or being loaded) or whose roster file alone would miss changes,
+    // which only loading applies; null for a course that can be read straight from its file.
+    private Course currentHolder(String courseId) {
+        Course course = courses.get(courseId);
+        if (course != null) return course;
+        try {
+            return storageFor(directory, courseId).hasPendingChanges() ? holder(courseId) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read course " + courseId, e);
+        }
+    }
+
+    // The grade distribution of every course, from the statistics of loaded courses and one pass over the
+    // roster file of the others.
+    private Distribution distribution() {
+        Distribution total = new Distribution();
+        courseIds().parallelStream().map(this::distributionOf).toList().forEach(total::add);
+        return total;
+    }
+
+    private Distribution distributionOf(String courseId) {
+        Distribution distribution = new Distribution();
+        Course course = currentHolder(courseId);
+        RosterStatistics courseStatistics = course == null ? null : course.statistics();
+        if (courseStatistics != null) {
+            distribution.add(courseStatistics);
+        } else {
+            // Not loaded, or unloaded meanwhile (and saved before the statistics were closed).
+            forEachStoredStudent(courseId, distribution::add);
+        }
+        return distribution;
+    }
+
+    // Streams the students of a course's roster file without loading the course. Later duplicates of a name
+    // are skipped, as loading does.
+    private void forEachStoredStudent(String courseId, Consumer<Student> consumer) {
+        Set<String> names = new HashSet<>();
+        try {
+            storageFor(directory, courseId).forEachStudent(student -> {
+                if (names.add(RosterService.key(student.getName()))) {
+                    consumer.accept(student);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read course " + courseId, e);
+        }
+    }
+
+    private RosterService load(String courseId) {
+        try {
+            return RosterService.load(storageFor(directory, courseId), maxStudents, journaled);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load course " + courseId, e);
+        }
+    }
+
+    private static int gradePoints(String letter) {
+        return switch (letter) {
+            case "A" -> 4;
+            case "B" -> 3;
+            case "C" -> 2;
+            case "D" -> 1;
+            default -> 0;
+        };
+    }
+
+    // One course: the task that loads its roster, run by the first caller while later ones wait for it, and
+    // the statistics kept for the cross-course queries once they are first needed.
+    private final class Course {
+
+        private final String id;
+        private final FutureTask<RosterService> loading;
+        private RosterStatistics statistics;
+        private boolean closed;
+
+        Course(String id) {
+            this.id = id;
+            this.loading = new FutureTask<>(() -> load(id));
+        }
+
+        // The loaded roster, loading it on this thread if nobody has started to. A failed load is reported to
+        // every waiting caller and forgotten, so the next call tries again.
+        RosterService roster() {
+            loading.run();
+            try {
+                return loading.get();
+            } catch (ExecutionException e) {
+                courses.remove(id, this);
+                if (e.getCause() instanceof RuntimeException failure) throw failure;
+                if (e.getCause() instanceof Error error) throw error;
+                throw new IllegalStateException("Could not load course " + id, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading course " + id, e);
+            }
+        }
+
+        // The roster if it has finished loading, or null.
+        RosterService loadedRoster() {
+            if (!loading.isDone()) return null;
+            try {
+                return loading.get();
+            } catch (ExecutionException | InterruptedException e) {
+                return null;
+            }
+        }
+
+        // The course statistics, built on first use; null once the course is closed.
+        synchronized RosterStatistics statistics() {
+            if (closed) return null;
+            if (statistics == null) {
+                statistics = new RosterStatistics(roster());
+            }
+            return statistics;
+        }
+
+        // Saves the roster if it has unsaved changes and closes it, waiting for a load still in progress.
+        synchronized void close() {
+            closed = true;
+            if (statistics != null) {
+                statistics.close();
+            }
+            RosterService roster;
+            try {
+                roster = roster();
+            } catch (RuntimeException e) {
+                return;
+            }
+            roster.saveIfDirty();
+            roster.close();
+        }
+    }
+
+    // Grade distribution of one or more courses, merged for the cross-course queries.
+    private static final class Distribution {
+
+        final int[] histogram = new int[101];
+        final Map<String, Integer> letterCounts = new TreeMap<>();
+        long graded;
+        double averageSum;
+
+        void add(Student student) {
+            if (student.getScoreCount() == 0) return;
+            Grade grade = student.getGrade();
+            histogram[RosterStatistics.bucket(grade.getAverage())]++;
+            letterCounts.merge(grade.getLetter(), 1, Integer::sum);
+            graded++;
+            averageSum += grade.getAverage();
+        }
+
+        void add(RosterStatistics courseStatistics) {
+            int[] courseHistogram = courseStatistics.getHistogram();
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += courseHistogram[i];
+            }
+            courseStatistics.getLetterCounts().forEach((letter, count) -> letterCounts.merge(letter, count, Integer::sum));
+            graded += courseStatistics.getGradedCount();
+            averageSum += courseStatistics.getMean() * courseStatistics.getGradedCount();
+        }
+
+        void add(Distribution other) {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            other.letterCounts.forEach((letter, count) -> letterCounts.merge(letter, count, Integer::sum));
+            graded += other.graded;
+            averageSum += other.averageSum;
+        }
+    }
+}
@@ -1,68 +1,436 @@
 // FileRosterStorage.java
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 public class FileRosterStorage {
 
     private static final String FILE_NAME = "roster.csv";
-    // Regex to split CSV entries, allowing for zero or more spaces after the comma.
-    private static final String CSV_DELIMITER_REGEX = ",\\s*";
+    // Suffix of roster files moved aside because they were still mapped; see replaceRoster().
+    private static final String RETIRED_SUFFIX = ".retired-";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    // CSV rosters at least this large are parsed on all cores by ParallelRosterCsvReader.
+    private static final long PARALLEL_LOAD_THRESHOLD = Long.getLong("gradetracker.parallelLoadThreshold", 8 * 1024 * 1024);
+
+    private static final LatencyHistogram LOAD_TIME = Metrics.histogram("storage.load");
+    private static final LongAdder LOADED_BYTES = Metrics.counter("storage.load.bytes");
+    private static final LatencyHistogram SAVE_TIME = Metrics.histogram("storage.save");
+    private static final LongAdder SAVED_BYTES = Metrics.counter("storage.save.bytes");
+    private static final LongAdder SAVE_FAILURES = Metrics.counter("storage.save.failures");
+
+    private final String fileName;
+    private final String journalFileName;
+    // Snapshots are written next to the roster file and then moved over it, so the live file is never half-written.
+    private final String tempFileName;
+    private final String checkpointFileName;
+    // Format used by the next save: the format of the existing file, or one chosen from the file name.
+    private volatile RosterFormat format;
+    // Set once the roster file has been memory-mapped; the mapping outlives the load, see replaceRoster().
+    private volatile boolean mapped;
+    // Whether the last loadRoster() hit an unreadable file and fell back to an empty roster.
+    private volatile boolean loadFailed;
+
+    // Reused by every save, so writing a snapshot allocates no per-student Strings or byte arrays.
+    private final SnapshotWriter snapshotWriter = new SnapshotWriter(WRITE_BUFFER_SIZE);
+
+    public FileRosterStorage() {
+        this(FILE_NAME);
+    }
+
+    public FileRosterStorage(String fileName) {
+        this.fileName = fileName;
+        int extension = fileName.lastIndexOf('.');
+        String baseName = extension > 0 ? fileName.substring(0, extension) : fileName;
+        this.journalFileName = baseName + ".journal";
+        this.tempFileName = fileName + ".tmp";
+        this.checkpointFileName = fileName + ".checkpoint";
+        this.format = RosterFormat.forFileName(fileName);
+    }
 
     public List<Student> loadRoster() {
-        List<Student> roster = new ArrayList<>();
-        File file = new File(FILE_NAME);
-
-        if (file.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.trim().isEmpty()) continue;
-
-                    // Split the line into a maximum of 3 parts (Name, Avg/Grade, Scores)
-                    String[] parts = line.split(CSV_DELIMITER_REGEX, 3);
-                    if (parts.length < 1) continue;
-
-                    String name = parts[0].trim();
-                    Student student = new Student(name);
-
-                    if (parts.length >= 2) {
-                        // The last part contains the score data.
-                        String scoresText = parts[parts.length - 1].trim();
-
-                        if (!scoresText.isEmpty() && !scoresText.equalsIgnoreCase("N/A")) {
-                            List<Integer> scores = Arrays.stream(scoresText.split(CSV_DELIMITER_REGEX))
-                                    .map(String::trim)
-                                    .filter(s -> !s.isEmpty())
-                                    .map(Integer::parseInt)
-                                    .collect(Collectors.toList());
-                            student.setScores(scores);
-                        }
-                    }
-                    roster.add(student);
-                }
-            } catch (IOException | NumberFormatException e) {
-                System.err.println("Error loading roster data: " + e.getMessage());
-                // Fallback to empty list upon file error
-                return new ArrayList<>();
-            }
+        return loadRoster(student -> { });
+    }
+
+    // Loads the roster like loadRoster(), passing each student to onStudentRead as soon as it is read.
+    public List<Student> loadRoster(Consumer<Student> onStudentRead) {
+        try {
+            List<Student> roster = readRoster(onStudentRead);
+            loadFailed = false;
+            return roster;
+        } catch (IOException | NumberFormatException e) {
+            Log.error("Error loading roster data: " + e.getMessage());
+            loadFailed = true;
+            // Fallback to empty list upon file error
+            return new ArrayList<>();
+        }
+    }
+
+    // Whether the last loadRoster() returned an empty roster because the file could not be read, rather
+    // than because there was nothing in it. Nothing should be saved over such a file.
+    public boolean loadFailed() {
+        return loadFailed;
+    }
+
+    // Loads the roster like loadRoster(), but reports errors to the caller instead of returning an empty roster.
+    public List<Student> readRoster() throws IOException {
+        return readRoster(student -> { });
+    }
+
+    // Reads the roster like readRoster(), passing each student to onStudentRead as soon as it is read.
+    public List<Student> readRoster(Consumer<Student> onStudentRead) throws IOException {
+        long start = System.nanoTime();
+        recoverCheckpoint();
+        Path path = Path.of(fileName);
+        long size = Files.exists(path) ? Files.size(path) : 0;
+        List<Student> roster;
+        if (size >= PARALLEL_LOAD_THRESHOLD && RosterFormat.detect(path) == RosterFormat.CSV) {
+            format = RosterFormat.CSV;
+            mapped = true;
+            // Chunks are parsed out of order, so the students are only handed on once the whole file is read.
+            roster = ParallelRosterCsvReader.read(path);
+            roster.forEach(onStudentRead);
+        } else {
+            List<Student> students = new ArrayList<>();
+            forEachStudent(student -> {
+                students.add(student);
+                onStudentRead.accept(student);
+            });
+            roster = students;
         }
+        LOAD_TIME.recordSince(start);
+        LOADED_BYTES.add(size);
         return roster;
     }
 
-    public void saveRoster(List<Student> roster) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_NAME))) {
-            for (Student student : roster) {
-                // Format: Name, Score1, Score2, ...
-                String line = student.getName() + ", " + student.getScoresString().replace("N/A", "");
-                writer.write(line);
-                writer.newLine();
+    public RosterFormat getFormat() {
+        return format;
+    }
+
+    // Changes the format the roster is written in from the next save on.
+    public void setFormat(RosterFormat format) {
+        this.format = format;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    // Converts a roster file into the given format. The source format is detected from its header.
+    public static void convert(String sourceFileName, String targetFileName, RosterFormat targetFormat) throws IOException {
+        FileRosterStorage source = new FileRosterStorage(sourceFileName);
+        FileRosterStorage target = new FileRosterStorage(targetFileName);
+        target.setFormat(targetFormat);
+        Path temp = Path.of(target.tempFileName);
+        if (targetFormat == RosterFormat.CSV) {
+            // CSV is written one line per student, so the source is streamed straight through.
+            source.recoverCheckpoint();
+            target.writeCsvSnapshot(source, temp);
+        } else {
+            // The binary header and entry table precede the scores, so the whole roster is read first.
+            target.writeSnapshot(source.readRoster(), temp);
+        }
+        replace(temp, Path.of(targetFileName));
+    }
+
+    // Streams every student in the roster file to the consumer without holding the whole roster in memory.
+    // The file format is detected from its header, and later saves keep using that format.
+    public void forEachStudent(Consumer<Student> consumer) throws IOException {
+        File file = new File(fileName);
+        if (!file.exists()) return;
+
+        format = RosterFormat.detect(file.toPath());
+        if (format == RosterFormat.BINARY) {
+            mapped = true;
+            BinaryRosterFormat.read(file.toPath(), consumer);
+            return;
+        }
+        try (RosterCsvReader reader = openRoster(file)) {
+            Student student;
+            while ((student = reader.readStudent()) != null) {
+                consumer.accept(student);
             }
-            System.out.println("LOG: Data saved to " + FILE_NAME);
+        }
+    }
+
+    // Opens an iterator over a CSV roster file. The caller is responsible for closing it.
+    public RosterCsvReader openRoster() throws IOException {
+        File file = new File(fileName);
+        if (RosterFormat.detect(file.toPath()) != RosterFormat.CSV) {
+            throw new IOException(fileName + " is not a CSV roster");
+        }
+        return openRoster(file);
+    }
+
+    private RosterCsvReader openRoster(File file) throws IOException {
+        return new RosterCsvReader(new FileReader(file, StandardCharsets.UTF_8));
+    }
+
+    // Writes the whole roster to a temporary file and atomically moves it over the roster file.
+    // Returns false if the write failed, in which case the previous roster file is left untouched.
+    public boolean saveRoster(List<Student> roster) {
+        Path temp = Path.of(tempFileName);
+        try {
+            writeSnapshot(roster, temp);
+            replaceRoster(temp);
+            Log.info("Data saved to " + fileName);
+            return true;
         } catch (IOException e) {
-            System.err.println("Error saving roster data: " + e.getMessage());
+            SAVE_FAILURES.increment();
+            Log.error("Error saving roster data: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // First half of a journal checkpoint: writes the snapshot to the checkpoint file without replacing the roster.
+    // The caller resets the journal and then calls commitCheckpoint(); a checkpoint file next to an empty
+    // journal is therefore always complete, which is what recoverCheckpoint() relies on after a crash.
+    public boolean writeCheckpoint(List<Student> roster) {
+        try {
+            writeSnapshot(roster, Path.of(checkpointFileName));
+            return true;
+        } catch (IOException e) {
+            SAVE_FAILURES.increment();
+            Log.error("Error writing roster checkpoint: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean commitCheckpoint() {
+        try {
+            replaceRoster(Path.of(checkpointFileName));
+            Log.info("Data saved to " + fileName);
+            return true;
+        } catch (IOException e) {
+            Log.error("Error committing roster checkpoint: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // After a binary save, moves the students' scores back onto the freshly written file. The students must
+    // be listed in the order they were saved in.
+    public void reattach(List<Student> roster) throws IOException {
+        if (format != RosterFormat.BINARY) {
+            throw new IOException(fileName + " is not a binary roster");
+        }
+        mapped = true;
+        BinaryRosterFormat.reattach(Path.of(fileName), roster);
+    }
+
+    // Replays the mutations journaled since the last snapshot. Returns the length of the valid journal.
+    public long replayJournal(RosterJournal.Replay replay) throws IOException {
+        return RosterJournal.replay(Path.of(journalFileName), replay);
+    }
+
+    // True if the journal holds mutations that are not yet part of the roster file.
+    public boolean hasPendingJournal() throws IOException {
+        Path journal = Path.of(journalFileName);
+        return Files.exists(journal) && Files.size(journal) > 0;
+    }
+
+    public boolean exists() {
+        return Files.exists(Path.of(fileName));
+    }
+
+    // True if reading the roster file alone would miss changes: journaled mutations, or files left by an
+    // interrupted save or checkpoint that only loading the roster recovers.
+    public boolean hasPendingChanges() throws IOException {
+        return hasPendingJournal() || Files.exists(Path.of(checkpointFileName)) || !retiredFiles().isEmpty();
+    }
+
+    // Opens the journal for appending new mutations after replayJournal() has returned validLength.
+    public RosterJournal openJournal(long validLength) throws IOException {
+        return new RosterJournal(Path.of(journalFileName), validLength, RosterJournal.DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    // Empties the journal once its records are part of a committed checkpoint, without opening it for appending.
+    public void discardJournal() throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(journalFileName), StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            channel.force(true);
+        }
+    }
+
+    // Finishes or discards a checkpoint interrupted by a crash, and removes a leftover temporary snapshot.
+    // A roster moved aside by replaceRoster() with nothing moved into its place is put back first.
+    private void recoverCheckpoint() throws IOException {
+        Files.deleteIfExists(Path.of(tempFileName));
+        List<Path> retired = retiredFiles();
+        if (!retired.isEmpty() && !Files.exists(Path.of(fileName))) {
+            Files.move(retired.get(retired.size() - 1), Path.of(fileName));
+            Log.info("Recovered roster from an interrupted save.");
+        }
+        deleteRetiredFiles();
+
+        Path checkpoint = Path.of(checkpointFileName);
+        if (!Files.exists(checkpoint)) return;
+
+        Path journal = Path.of(journalFileName);
+        if (Files.exists(journal) && Files.size(journal) == 0) {
+            // The journal was reset, so the checkpoint holds every change: finish moving it into place.
+            replaceRoster(checkpoint);
+            Log.info("Recovered roster from an interrupted checkpoint.");
+        } else {
+            // The journal still holds the changes; the old snapshot plus the journal is authoritative.
+            Files.delete(checkpoint);
+        }
+    }
+
+    // Writes the roster in the current format and forces the file to disk before returning.
+    private synchronized void writeSnapshot(List<Student> roster, Path path) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            snapshotWriter.open(channel);
+            if (format == RosterFormat.BINARY) {
+                BinaryRosterFormat.write(roster, snapshotWriter);
+            } else {
+                writeCsv(roster, snapshotWriter);
+            }
+            snapshotWriter.finish();
+            channel.force(true);
+            SAVED_BYTES.add(channel.size());
+        }
+        SAVE_TIME.recordSince(start);
+    }
+
+    // Streams every student of the source roster into a CSV file and forces it to disk.
+    private synchronized void writeCsvSnapshot(FileRosterStorage source, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeCsvLines(source, channel);
+            channel.force(true);
+        }
+    }
+
+    // Streams the roster file to the channel as CSV, in the same encoding as CSV snapshots, without holding
+    // the roster in memory. Used by exports; the channel is left open.
+    public synchronized void exportCsv(WritableByteChannel channel) throws IOException {
+        writeCsvLines(this, channel);
+    }
+
+    // Callers hold this storage's monitor, which guards the shared snapshot writer.
+    private void writeCsvLines(FileRosterStorage source, WritableByteChannel channel) throws IOException {
+        snapshotWriter.open(channel);
+        try {
+            source.forEachStudent(student -> {
+                try {
+                    writeCsvLine(student, snapshotWriter);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        snapshotWriter.finish();
+    }
+
+    // Encodes the roster as "Name, Score1, Score2, ..." lines.
+    private static void writeCsv(List<Student> roster, SnapshotWriter writer) throws IOException {
+        for (Student student : roster) {
+            writeCsvLine(student, writer);
+        }
+    }
+
+    private static void writeCsvLine(Student student, SnapshotWriter writer) throws IOException {
+        writer.putName(student.getName());
+        int count = student.getScoreCount();
+        for (int i = 0; i < count; i++) {
+            writer.putByte(',');
+            writer.putByte(' ');
+            writer.putScoreDigits(student.getScore(i));
+        }
+        if (count == 0) {
+            writer.putByte(',');
+            writer.putByte(' ');
+        }
+        writer.putByte('\n');
+    }
+
+    // Moves a finished snapshot over the roster file. Windows refuses to replace a file while any mapping of
+    // it is open, and students (and copies of them) keep the mapping of a binary roster open until they are
+    // collected; it does allow renaming such a file, though. So if the move fails on a mapped roster, the
+    // roster is moved aside as a retired generation and the snapshot takes its name. Retired files are deleted
+    // once nothing maps them any more, and put back by recoverCheckpoint() if a crash leaves no roster file.
+    private void replaceRoster(Path snapshot) throws IOException {
+        Path target = Path.of(fileName);
+        if (mapped) {
+            deleteRetiredFiles();
+        }
+        try {
+            replace(snapshot, target);
+        } catch (FileSystemException e) {
+            if (!mapped || !Files.exists(target)) {
+                throw e;
+            }
+            long generation = System.currentTimeMillis();
+            Path retired;
+            while (Files.exists(retired = Path.of(fileName + RETIRED_SUFFIX + generation))) {
+                generation++;
+            }
+            Files.move(target, retired);
+            try {
+                Files.move(snapshot, target);
+            } catch (IOException moveFailure) {
+                Files.move(retired, target);
+                throw moveFailure;
+            }
+        }
+    }
+
+    // Roster files moved aside by replaceRoster(), oldest first.
+    private List<Path> retiredFiles() throws IOException {
+        Path target = Path.of(fileName).toAbsolutePath();
+        String prefix = target.getFileName() + RETIRED_SUFFIX;
+        List<Path> retired = new ArrayList<>();
+        if (!Files.isDirectory(target.getParent())) {
+            return retired;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(target.getParent(), prefix + "*")) {
+            for (Path file : files) {
+                retired.add(file);
+            }
+        }
+        retired.sort((a, b) -> Long.compare(generation(a, prefix), generation(b, prefix)));
+        return retired;
+    }
+
+    private static long generation(Path retired, String prefix) {
+        try {
+            return Long.parseLong(retired.getFileName().toString().substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Deletes the retired roster files that are no longer mapped; the others are tried again on the next save.
+    private void deleteRetiredFiles() throws IOException {
+        for (Path retired : retiredFiles()) {
+            try {
+                Files.deleteIfExists(retired);
+            } catch (IOException e) {
+                // Still mapped by students or copies that have not been collected yet.
+            }
+        }
+    }
+
+    private static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
-}
\ No newline at end of file
+}
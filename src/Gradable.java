@@ -3,4 +3,7 @@ public interface Gradable {
     // Defines methods required for any class that represents a graded entity.
     double calculateAverage();
     String getLetterScore();
+    // The policy that turns the scores into the average and letter above.
+    GradingPolicy getGradingPolicy();
+    void setGradingPolicy(GradingPolicy policy);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+// Grade.java
+// The result of applying a GradingPolicy to a student's scores.
+public final class Grade {
+
+    private final double average;
+    private final String letter;
+
+    public Grade(double average, String letter) {
+        this.average = average;
+        this.letter = letter;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public String getLetter() {
+        return letter;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f (%s)", average, letter);
+    }
+}
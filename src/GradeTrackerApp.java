@@ -1,37 +1,84 @@
 // GradeTrackerApp.java
 import javafx.application.Application;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.Arrays; // Required for table column setup
 
-public class GradeTrackerApp extends Application {
+public final class GradeTrackerApp extends Application {
+
+    private static final double ROW_HEIGHT = 24;
+    // Most matches the search box shows at once.
+    private static final int SEARCH_LIMIT = 500;
 
     private RosterService rosterService;
-    private TableView<Student> rosterTable;
+    private TableView<StudentRow> rosterTable;
+
+    // Table rows mirroring the roster. They are edited in place as RosterService reports changes,
+    // instead of rebuilding the whole list after every action, and only built for rows on screen.
+    private final RosterRowList rosterRows = new RosterRowList();
+    private RosterListener rosterListener;
 
-    // Fields for managing the background autosave process.
+    // Debounced background writer; roster edits mark the data dirty and it saves them off the FX thread.
     private AutosaveTask autosaveTask;
-    private Thread autosaveThread;
+    // Local JSON API, started only when -Dgradetracker.httpPort is set.
+    private RosterHttpServer httpServer;
+    // Undo/redo of roster edits, or null when -Dgradetracker.history=false.
+    private RosterHistory history;
+    private final Button undoButton = new Button("Undo");
+    private final Button redoButton = new Button("Redo");
+
+    // Type-ahead name search, or null until it is built (and when -Dgradetracker.search=false). While the
+    // search box holds a query, the table shows searchRows, a short list of matches, and rosterRows keeps
+    // tracking the full roster underneath, so typing never rebuilds the roster's rows.
+    private NameSearchIndex searchIndex;
+    private final TextField searchField = new TextField();
+    private final RosterRowList searchRows = new RosterRowList();
+    // How each table column orders students when the table is sorted by it.
+    private final Map<TableColumn<StudentRow, ?>, Comparator<Student>> columnOrders = new HashMap<>();
+
+    // Roster loading and manual saves run here, never on the FX thread.
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "roster-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Students read so far by a load in progress, waiting to be shown.
+    private final Queue<Student> loadingStudents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean loadingDrainQueued = new AtomicBoolean();
+
+    private ToolBar toolBar;
+    private final Label statusLabel = new Label();
+    private final ProgressBar progressBar = new ProgressBar();
 
     @Override
     public void init() throws Exception {
         super.init();
-        this.rosterService = new RosterService();
-
-        // Initialize and start the background thread for autosaving data.
-        this.autosaveTask = new AutosaveTask(rosterService);
-        this.autosaveThread = new Thread(autosaveTask);
-        this.autosaveThread.setDaemon(true);
-        this.autosaveThread.start();
+        // Metrics are published over JMX, and also appended to -Dgradetracker.metricsFile if it is set.
+        Metrics.startReporting();
     }
 
     @Override
@@ -42,27 +89,145 @@ public class GradeTrackerApp extends Application {
 
         BorderPane root = new BorderPane();
 
-        root.setTop(createToolbar());
+        this.toolBar = createToolbar();
+        // Nothing can be edited until the roster has finished loading.
+        toolBar.setDisable(true);
+        root.setTop(toolBar);
         this.rosterTable = createRosterTable();
         root.setCenter(rosterTable);
-        root.setBottom(new Label("Status: Application ready. Autosave active every 60s."));
+        progressBar.setVisible(false);
+        HBox statusBar = new HBox(8, statusLabel, progressBar);
+        statusBar.setAlignment(Pos.CENTER_LEFT);
+        root.setBottom(statusBar);
 
         Scene scene = new Scene(root, SCENE_WIDTH, SCENE_HEIGHT);
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN), this::handleUndo);
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN), this::handleRedo);
         primaryStage.setTitle("Student Grade Tracker");
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        loadRoster();
+    }
+
+    // Loads the roster on the I/O thread while the window is already up. Students appear in the table as
+    // they are read; once the service is ready the table switches over to it and editing is enabled.
+    private void loadRoster() {
+        // The roster capacity can be raised for large installations with -Dgradetracker.maxStudents=N,
+        // and -Dgradetracker.journal=true journals each edit instead of rewriting the roster file.
+        // -Dgradetracker.rosterFile=roster.bin opens a binary roster, whose scores stay memory-mapped.
+        String rosterFile = System.getProperty("gradetracker.rosterFile");
+        FileRosterStorage storage = rosterFile == null ? new FileRosterStorage() : new FileRosterStorage(rosterFile);
+        showBusy("Loading " + storage.getFileName() + "...");
+        RosterService.loadAsync(storage,
+                        Integer.getInteger("gradetracker.maxStudents", RosterService.DEFAULT_MAX_STUDENTS),
+                        Boolean.getBoolean("gradetracker.journal"),
+                        this::studentRead, ioExecutor)
+                .whenComplete((service, error) -> Platform.runLater(() -> rosterLoaded(service, error)));
+    }
+
+    // Called on the I/O thread for every student read. Students are handed to the FX thread in batches,
+    // with at most one drain queued at a time, so a large roster does not flood the event queue.
+    private void studentRead(Student student) {
+        loadingStudents.add(student);
+        if (loadingDrainQueued.compareAndSet(false, true)) {
+            Platform.runLater(this::drainLoadingStudents);
+        }
+    }
+
+    private void drainLoadingStudents() {
+        loadingDrainQueued.set(false);
+        List<Student> students = new ArrayList<>();
+        Student student;
+        while ((student = loadingStudents.poll()) != null) {
+            students.add(student);
+        }
+        if (rosterService == null) {
+            rosterRows.append(students);
+            showBusy("Loading... " + rosterRows.size() + " students read.");
+        }
+    }
+
+    private void rosterLoaded(RosterService service, Throwable error) {
+        loadingStudents.clear();
+        if (error != null) {
+            // Nothing is started, so no autosave can write over the file that failed to load.
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof UncheckedIOException unchecked) {
+                cause = unchecked.getCause();
+            }
+            rosterRows.reset(List.of());
+            showStatus("Could not load the roster.");
+            new Alert(Alert.AlertType.ERROR, "Could not load the roster: " + cause.getMessage()).show();
+            return;
+        }
+        this.rosterService = service;
+
+        // Start the background writer that saves changes shortly after they are made.
+        this.autosaveTask = new AutosaveTask(rosterService);
+        autosaveTask.setSaveListener(() -> Platform.runLater(this::showSaveStatus));
+
+        Integer httpPort = Integer.getInteger("gradetracker.httpPort");
+        if (httpPort != null) {
+            try {
+                this.httpServer = new RosterHttpServer(rosterService, httpPort);
+                httpServer.start();
+            } catch (IOException e) {
+                Log.error("Could not start the roster API on port " + httpPort + ": " + e.getMessage());
+            }
+        }
+
+        bindRosterRows();
+        updateUndoButtons();
+        if (Boolean.parseBoolean(System.getProperty("gradetracker.history", "true"))) {
+            // The first version copies every student's scores, so the history is built on the I/O thread too;
+            // undo becomes available once it is ready.
+            CompletableFuture.supplyAsync(() -> new RosterHistory(service), ioExecutor)
+                    .thenAccept(created -> Platform.runLater(() -> {
+                        this.history = created;
+                        history.setHistoryListener(() -> Platform.runLater(this::updateUndoButtons));
+                        updateUndoButtons();
+                    }));
+        }
+        if (Boolean.parseBoolean(System.getProperty("gradetracker.search", "true"))) {
+            // Indexing every name takes a while on large rosters, so it is built on the I/O thread.
+            CompletableFuture.supplyAsync(() -> new NameSearchIndex(service), ioExecutor)
+                    .thenAccept(index -> Platform.runLater(() -> {
+                        this.searchIndex = index;
+                        searchField.setDisable(false);
+                        updateSearch();
+                    }));
+        }
+        toolBar.setDisable(false);
+        showStatus("Loaded " + rosterService.size() + " students. Changes are saved automatically.");
     }
 
     @Override
     public void stop() throws Exception {
         super.stop();
-        if (autosaveThread != null) {
+        ioExecutor.shutdown();
+        if (rosterListener != null) {
+            rosterService.removeRosterListener(rosterListener);
+        }
+        if (history != null) {
+            history.close();
+        }
+        if (searchIndex != null) {
+            searchIndex.close();
+        }
+        if (httpServer != null) {
+            // Applies any scores still queued by API clients before the final save.
+            httpServer.stop();
+        }
+        if (autosaveTask != null) {
+            // Flushes any changes that have not been written yet.
             autosaveTask.stop();
-            // Wait for the thread to finish saving
-            autosaveThread.join(5000);
-            rosterService.saveData();
         }
-        System.out.println("LOG: Application closed and final data saved.");
+        if (rosterService != null) {
+            rosterService.close();
+        }
+        Metrics.stopReporting();
+        Log.info("Application closed and final data saved.");
     }
 
     private ToolBar createToolbar() {
@@ -78,18 +243,88 @@ public class GradeTrackerApp extends Application {
         deleteStudentButton.setOnAction(_ -> handleDeleteStudent());
         enterScoresButton.setOnAction(_ -> handleAddScore());
         editScoresButton.setOnAction(_ -> handleEditScores());
+        undoButton.setOnAction(_ -> handleUndo());
+        redoButton.setOnAction(_ -> handleRedo());
+        updateUndoButtons();
 
+        // Saves on the I/O thread; the button stays disabled until the write has finished.
         saveButton.setOnAction(_ -> {
-            rosterService.saveData();
-            new Alert(Alert.AlertType.INFORMATION, "Data manually saved!").show();
+            saveButton.setDisable(true);
+            showBusy("Saving...");
+            rosterService.saveDataAsync(ioExecutor).whenComplete((saved, error) -> Platform.runLater(() -> {
+                saveButton.setDisable(false);
+                if (error == null && saved) {
+                    showStatus("Data manually saved at " + LocalTime.now().withNano(0) + ".");
+                } else {
+                    showStatus("Save failed. Changes are kept and will be retried.");
+                    new Alert(Alert.AlertType.ERROR, "The roster could not be saved.").show();
+                }
+            }));
         });
 
+        searchField.setPromptText("Search names");
+        searchField.setDisable(true);
+        searchField.textProperty().addListener((_, _, _) -> updateSearch());
+
         return new ToolBar(addStudentButton, editStudentButton, deleteStudentButton, new Separator(),
-                enterScoresButton, editScoresButton, new Separator(), saveButton);
+                enterScoresButton, editScoresButton, new Separator(), undoButton, redoButton, new Separator(), saveButton,
+                new Separator(), searchField);
+    }
+
+    // Shows the matches for the search box, or the whole roster when it is empty.
+    private void updateSearch() {
+        String query = searchField.getText();
+        if (searchIndex == null || query == null || query.isBlank()) {
+            if (rosterTable.getItems() != rosterRows) {
+                rosterTable.setItems(rosterRows);
+                searchRows.reset(List.of());
+            }
+            return;
+        }
+        searchRows.reset(searchIndex.search(query, SEARCH_LIMIT));
+        if (rosterTable.getItems() != searchRows) {
+            rosterTable.setItems(searchRows);
+        }
+    }
+
+    private void handleUndo() {
+        if (history != null && history.canUndo() && !history.undo()) {
+            new Alert(Alert.AlertType.ERROR, "The last change could not be undone. It conflicts with a later edit.").show();
+        }
+    }
+
+    private void handleRedo() {
+        if (history != null && history.canRedo() && !history.redo()) {
+            new Alert(Alert.AlertType.ERROR, "The change could not be redone. It conflicts with a later edit.").show();
+        }
+    }
+
+    private void showBusy(String message) {
+        statusLabel.setText("Status: " + message);
+        progressBar.setVisible(true);
+    }
+
+    private void showStatus(String message) {
+        statusLabel.setText("Status: " + message);
+        progressBar.setVisible(false);
+    }
+
+    // Shown after every roster change and every autosave.
+    private void showSaveStatus() {
+        if (rosterService.isDirty()) {
+            showStatus("Unsaved changes; saving shortly.");
+        } else {
+            showStatus("All changes saved at " + LocalTime.now().withNano(0) + ".");
+        }
+    }
+
+    private void updateUndoButtons() {
+        undoButton.setDisable(history == null || !history.canUndo());
+        redoButton.setDisable(history == null || !history.canRedo());
     }
 
     private void handleDeleteStudent() {
-        Student selectedStudent = rosterTable.getSelectionModel().getSelectedItem();
+        Student selectedStudent = getSelectedStudent();
 
         if (selectedStudent == null) {
             new Alert(Alert.AlertType.WARNING, "Please select a student to delete.").showAndWait();
@@ -99,14 +334,12 @@ public class GradeTrackerApp extends Application {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Confirm Deletion");
         alert.setHeaderText("Are you sure you want to delete " + selectedStudent.getName() + "?");
-        alert.setContentText("This action cannot be undone.");
+        alert.setContentText(history != null ? "You can bring the student back with Undo." : "This action cannot be undone.");
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             if (rosterService.removeStudent(selectedStudent)) {
-                rosterTable.getItems().setAll(rosterService.getRoster());
-                rosterService.saveData();
-                System.out.println("LOG: Deleted student: " + selectedStudent.getName());
+                Log.info("Deleted student: " + selectedStudent.getName());
             } else {
                 new Alert(Alert.AlertType.ERROR, "Failed to delete student.").show();
             }
@@ -114,7 +347,7 @@ public class GradeTrackerApp extends Application {
     }
 
     private void handleEditStudent() {
-        Student selectedStudent = rosterTable.getSelectionModel().getSelectedItem();
+        Student selectedStudent = getSelectedStudent();
         if (selectedStudent == null) {
             new Alert(Alert.AlertType.WARNING, "Please select a student to edit.").showAndWait();
             return;
@@ -128,37 +361,17 @@ public class GradeTrackerApp extends Application {
         dialog.showAndWait().ifPresent(name -> {
             String newName = name.trim();
             if (!newName.isEmpty() && !newName.equalsIgnoreCase(selectedStudent.getName())) {
-
-                List<Integer> scores = selectedStudent.getScores();
-                rosterService.removeStudent(selectedStudent);
-
-                if (rosterService.addStudent(newName)) {
-
-                    Student newStudent = rosterService.findStudent(newName);
-
-                    if (newStudent != null) {
-                        newStudent.setScores(scores);
-                    }
-                    rosterTable.getItems().setAll(rosterService.getRoster());
-                    rosterService.saveData();
-                    System.out.println("LOG: Renamed student to: " + newName);
+                if (rosterService.renameStudent(selectedStudent, newName)) {
+                    Log.info("Renamed student to: " + newName);
                 } else {
-                    new Alert(Alert.AlertType.ERROR, "Cannot rename. Name may already exist or roster is full.").show();
-                    // Restore original student if rename failed
-                    if (rosterService.addStudent(selectedStudent.getName())) {
-                        Student originalStudent = rosterService.findStudent(selectedStudent.getName());
-                        if (originalStudent != null) {
-                            originalStudent.setScores(scores);
-                        }
-                    }
-                    rosterTable.getItems().setAll(rosterService.getRoster());
+                    new Alert(Alert.AlertType.ERROR, "Cannot rename. Name may already exist.").show();
                 }
             }
         });
     }
 
     private void handleAddScore() {
-        Student selectedStudent = rosterTable.getSelectionModel().getSelectedItem();
+        Student selectedStudent = getSelectedStudent();
 
         if (selectedStudent == null) {
             new Alert(Alert.AlertType.WARNING, "Please select a student from the table first.").showAndWait();
@@ -175,10 +388,11 @@ public class GradeTrackerApp extends Application {
                 int score = Integer.parseInt(scoreText.trim());
 
                 if (score >= 0 && score <= 100) {
-                    selectedStudent.addScore(score);
-                    rosterTable.refresh();
-                    rosterService.saveData();
-                    System.out.println("LOG: Added score " + score + " to " + selectedStudent.getName());
+                    if (rosterService.addScore(selectedStudent, score)) {
+                        Log.info("Added score " + score + " to " + selectedStudent.getName());
+                    } else {
+                        new Alert(Alert.AlertType.ERROR, "The student is no longer in the roster.").showAndWait();
+                    }
                 } else {
                     new Alert(Alert.AlertType.ERROR, "Score must be between 0 and 100.").showAndWait();
                 }
@@ -189,15 +403,14 @@ public class GradeTrackerApp extends Application {
     }
 
     private void handleEditScores() {
-        Student selectedStudent = rosterTable.getSelectionModel().getSelectedItem();
+        Student selectedStudent = getSelectedStudent();
 
         if (selectedStudent == null) {
             new Alert(Alert.AlertType.WARNING, "Please select a student to edit scores for.").showAndWait();
             return;
         }
 
-        List<Integer> currentScores = selectedStudent.getScores();
-        if (currentScores.isEmpty()) {
+        if (selectedStudent.getScoreCount() == 0) {
             new Alert(Alert.AlertType.INFORMATION, selectedStudent.getName() + " has no scores to edit. Use 'Enter Scores' to add one.").showAndWait();
             return;
         }
@@ -214,10 +427,11 @@ public class GradeTrackerApp extends Application {
             try {
                 List<Integer> updatedScores = parseScoresFromText(newScoresText);
 
-                rosterService.updateStudentScores(selectedStudent, updatedScores);
-                rosterTable.refresh();
-                rosterService.saveData();
-                System.out.println("LOG: Scores updated for " + selectedStudent.getName());
+                if (rosterService.updateStudentScores(selectedStudent, updatedScores)) {
+                    Log.info("Scores updated for " + selectedStudent.getName());
+                } else {
+                    new Alert(Alert.AlertType.ERROR, "The student is no longer in the roster.").showAndWait();
+                }
             } catch (NumberFormatException e) {
                 new Alert(Alert.AlertType.ERROR, "Invalid score format. Please ensure all entries are numbers.").showAndWait();
             } catch (IllegalArgumentException e) {
@@ -254,9 +468,7 @@ public class GradeTrackerApp extends Application {
                 boolean success = rosterService.addStudent(newName);
 
                 if (success) {
-                    rosterTable.getItems().setAll(rosterService.getRoster());
-                    rosterService.saveData();
-                    System.out.println("LOG: Added student: " + name);
+                    Log.info("Added student: " + name);
                 } else {
                     new Alert(Alert.AlertType.ERROR, "Could not add student. Name may exist or roster is full.").show();
                 }
@@ -264,32 +476,61 @@ public class GradeTrackerApp extends Application {
         });
     }
 
-    private TableView<Student> createRosterTable() {
-        TableView<Student> table = new TableView<>();
-        ObservableList<Student> data = FXCollections.observableArrayList(rosterService.getRoster());
-        table.setItems(data);
+    // Returns the student behind the selected table row, or null if nothing is selected.
+    private Student getSelectedStudent() {
+        StudentRow row = rosterTable.getSelectionModel().getSelectedItem();
+        return row == null ? null : row.getStudent();
+    }
 
-        TableColumn<Student, String> nameCol = new TableColumn<>("Student Name");
+    // Fills the table rows from the roster and subscribes to its changes. Changes can come from any
+    // thread, so they are queued onto the FX thread, where they are applied in the order they happened.
+    private void bindRosterRows() {
+        this.rosterListener = changes -> Platform.runLater(() -> {
+            rosterRows.apply(changes);
+            if (rosterTable.getItems() == searchRows) {
+                // The index has already seen these changes, so the matches are simply looked up again.
+                updateSearch();
+            }
+            showSaveStatus();
+        });
+        rosterRows.reset(rosterService.addRosterListener(rosterListener));
+    }
+
+    private TableView<StudentRow> createRosterTable() {
+        TableView<StudentRow> table = new TableView<>(rosterRows);
+        // A fixed row height lets the virtualized table lay out rows without measuring them while scrolling.
+        table.setFixedCellSize(ROW_HEIGHT);
+
+        // Each column reads a cached property of the row, so cells never recompute grades or use reflection.
+        TableColumn<StudentRow, String> nameCol = new TableColumn<>("Student Name");
         nameCol.setMinWidth(150);
-        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameCol.setCellValueFactory(cellData -> cellData.getValue().nameProperty());
 
-        TableColumn<Student, Double> avgCol = new TableColumn<>("Average");
+        TableColumn<StudentRow, Double> avgCol = new TableColumn<>("Average");
         avgCol.setMinWidth(100);
-        avgCol.setCellValueFactory(cellData -> {
-            double avg = cellData.getValue().calculateAverage();
-            return new javafx.beans.property.SimpleDoubleProperty(avg).asObject();
-        });
+        avgCol.setCellValueFactory(cellData -> cellData.getValue().averageProperty());
 
-        TableColumn<Student, String> letterCol = new TableColumn<>("Grade");
+        TableColumn<StudentRow, String> letterCol = new TableColumn<>("Grade");
         letterCol.setMinWidth(80);
-        letterCol.setCellValueFactory(cellData -> {
-            String letter = cellData.getValue().getLetterScore();
-            return new javafx.beans.property.SimpleStringProperty(letter);
-        });
+        letterCol.setCellValueFactory(cellData -> cellData.getValue().letterProperty());
 
-        TableColumn<Student, String> scoresCol = new TableColumn<>("Scores");
+        TableColumn<StudentRow, String> scoresCol = new TableColumn<>("Scores");
         scoresCol.setMinWidth(300);
-        scoresCol.setCellValueFactory(new PropertyValueFactory<>("scoresString"));
+        scoresCol.setCellValueFactory(cellData -> cellData.getValue().scoresProperty());
+
+        // Each column sorts by the student value it shows. The default policy would sort the rows themselves,
+        // building one per student, so both row lists sort their Student references instead and keep them
+        // in order as changes arrive; the roster rows stay sorted while search results are shown.
+        columnOrders.put(nameCol, Comparator.comparing(Student::getName));
+        columnOrders.put(avgCol, Comparator.comparingDouble(Student::calculateAverage));
+        columnOrders.put(letterCol, Comparator.comparing(Student::getLetterScore));
+        columnOrders.put(scoresCol, Comparator.comparing(Student::getScoresString));
+        table.setSortPolicy(sorted -> {
+            Comparator<Student> order = studentOrder(sorted);
+            rosterRows.sortBy(order);
+            searchRows.sortBy(order);
+            return true;
+        });
 
         // Uses Arrays.asList() to pass columns as a Collection, avoiding varargs generics warning.
         table.getColumns().addAll(Arrays.asList(nameCol, avgCol, letterCol, scoresCol));
@@ -297,6 +538,19 @@ public class GradeTrackerApp extends Application {
         return table;
     }
 
+    // The table's sort columns as one order over students, or null to keep the roster order.
+    private Comparator<Student> studentOrder(TableView<StudentRow> table) {
+        Comparator<Student> order = null;
+        for (TableColumn<StudentRow, ?> column : table.getSortOrder()) {
+            Comparator<Student> byColumn = columnOrders.get(column);
+            if (column.getSortType() == TableColumn.SortType.DESCENDING) {
+                byColumn = byColumn.reversed();
+            }
+            order = order == null ? byColumn : order.thenComparing(byColumn);
+        }
+        return order;
+    }
+
     // Standard main method, using String[] args to prevent varargs warnings.
     static void main(String[] args) {
         launch(args);
@@ -0,0 +1,461 @@
+// GradeTrackerCli.java
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Headless entry point for batch jobs. It only uses RosterService and FileRosterStorage, so it runs without
+// JavaFX on the class path. Every command streams its records one at a time: inputs and outputs of any size
+// are processed in constant memory, and only "import" holds the (much smaller) target roster in memory.
+public class GradeTrackerCli {
+
+    private static final String USAGE = """
+            Usage:
+              GradeTrackerCli import <scores.csv|scores.jsonl|-> [--roster roster.csv] [--replace]
+              GradeTrackerCli report [--roster roster.csv] [--policy standard|drop-lowest:N|curve:P|weighted:...]
+                                     [--scale 90,80,70,60] [--out report.csv]
+              GradeTrackerCli export [--roster roster.csv] [--format csv|jsonl] [--policy ...] [--scale ...] [--out file]
+              GradeTrackerCli convert <source> <target> [--format csv|binary]
+              GradeTrackerCli serve [--roster roster.csv] [--port 8080]
+              GradeTrackerCli courses [--courses courses]
+              GradeTrackerCli gpa <name> [--courses courses]
+
+            import appends the scores of each record to the student of the same name, adding missing students;
+            --replace overwrites their scores instead. Input files ending in .jsonl hold one
+            {"name": ..., "scores": [...]} object per line; anything else is read as a roster CSV, and "-"
+            reads CSV from standard input. Output goes to standard output unless --out is given.
+            weighted:homework:5:40,exams:2:60 weighs categories of scores, each taking its count of scores in
+            the order they were entered (the last one also takes the rest).
+            serve runs the local JSON API (see RosterHttpServer) until the process is stopped.
+            --course <id> works on courses/<id>.csv (or .bin) instead of --roster; courses lists every course
+            with the school-wide grade distribution, and gpa prints a student's grades and GPA across courses.""";
+
+    // Roster capacity for batch jobs; unlike the GUI they are not limited to the default class size.
+    private static final int MAX_STUDENTS = Integer.getInteger("gradetracker.maxStudents", Integer.MAX_VALUE);
+    // Records applied to the roster per RosterService.applyBatch() call during an import.
+    private static final int IMPORT_BATCH_SIZE = 10000;
+
+    // Writes one student; lets streaming commands pass I/O errors through FileRosterStorage.forEachStudent().
+    private interface StudentWriter {
+        void write(Student student) throws IOException;
+    }
+
+    static void main(String[] args) {
+        int status = run(args);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    // Runs one command and returns the process exit status: 0 on success, 1 if the command failed and 2 for
+    // a usage error.
+    static int run(String[] args) {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            return 2;
+        }
+        List<String> arguments = new ArrayList<>();
+        Map<String, String> options;
+        int status;
+        try {
+            options = parseOptions(args, arguments);
+            status = switch (args[0]) {
+                case "import" -> importScores(arguments, options);
+                case "report" -> report(options);
+                case "export" -> export(options);
+                case "convert" -> convert(arguments, options);
+                case "serve" -> serve(options);
+                case "courses" -> courses(options);
+                case "gpa" -> gpa(arguments, options);
+                default -> {
+                    System.err.println("Unknown command: " + args[0]);
+                    System.err.println(USAGE);
+                    yield 2;
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = 1;
+        }
+        return status;
+    }
+
+    private static int importScores(List<String> arguments, Map<String, String> options) throws IOException {
+        if (arguments.size() != 1) {
+            throw new IllegalArgumentException("import needs exactly one input file");
+        }
+        FileRosterStorage storage = openStorage(options, true);
+        RosterService rosterService = RosterService.load(storage, MAX_STUDENTS, false);
+        boolean replace = options.containsKey("replace");
+
+        long records = 0;
+        long rejected = 0;
+        // Records are applied IMPORT_BATCH_SIZE at a time, each batch as one validated change to the roster.
+        RosterBatch batch = new RosterBatch();
+        Set<String> addedInBatch = new HashSet<>();
+        int size = rosterService.size();
+        try (RosterReader reader = openInput(arguments.get(0))) {
+            Student record;
+            while ((record = reader.readStudent()) != null) {
+                records++;
+                String name = record.getName();
+                String key = RosterService.key(name);
+                if (rosterService.findStudent(name) == null && !addedInBatch.contains(key)) {
+                    // Names end at the first comma or line break in the roster CSV, so they cannot contain one.
+                    if (name.isBlank() || !isStorableName(name) || size >= rosterService.getMaxStudents()) {
+                        rejected++;
+                        continue;
+                    }
+                    batch.addStudent(name);
+                    addedInBatch.add(key);
+                    size++;
+                }
+                // The scores go in as written, so that the batch's validation reports any outside 0-100 and the
+                // import fails before the roster is saved, rather than silently dropping them.
+                if (replace) {
+                    batch.replaceScores(name, reader.lastScores());
+                } else {
+                    batch.addScores(name, reader.lastScores());
+                }
+                if (batch.size() >= IMPORT_BATCH_SIZE) {
+                    rosterService.applyBatch(batch);
+                    batch = new RosterBatch();
+                    addedInBatch.clear();
+                }
+            }
+        }
+        rosterService.applyBatch(batch);
+
+        if (!rosterService.saveData()) {
+            System.err.println("Import failed: the roster could not be saved.");
+            return 1;
+        }
+        Log.info("Imported " + (records - rejected) + " of " + records + " records into "
+                + storage.getFileName() + ".");
+        if (rejected > 0) {
+            Log.warn("Rejected " + rejected + " records (invalid name or roster full).");
+        }
+        return 0;
+    }
+
+    // Writes "name,score_count,average,letter" for every student, followed by a class summary.
+    private static int report(Map<String, String> options) throws IOException {
+        FileRosterStorage storage = openStorage(options, false);
+        GradingPolicy policy = parsePolicy(options);
+        String out = options.get("out");
+
+        long[] totals = new long[2]; // students, graded students
+        double[] averageSum = new double[1];
+        Map<String, Long> letterCounts = new TreeMap<>();
+        try (Writer writer = openOutput(out)) {
+            writer.write("name,score_count,average,letter\n");
+            forEachStudent(storage, student -> {
+                student.setGradingPolicy(policy);
+                Grade grade = student.getGrade();
+                int count = student.getScoreCount();
+                totals[0]++;
+                if (count > 0) {
+                    totals[1]++;
+                    averageSum[0] += grade.getAverage();
+                    letterCounts.merge(grade.getLetter(), 1L, Long::sum);
+                }
+                writer.write(student.getName());
+                writer.write(',');
+                writer.write(Integer.toString(count));
+                writer.write(',');
+                writer.write(count > 0 ? RosterJson.formatAverage(grade.getAverage()) : "");
+                writer.write(',');
+                writer.write(count > 0 ? grade.getLetter() : "");
+                writer.write('\n');
+            });
+        }
+
+        // Keep standard output clean for the report when it is written there.
+        var summary = out == null ? System.err : System.out;
+        summary.println("Students: " + totals[0] + ", graded: " + totals[1] + ", class mean: "
+                + (totals[1] == 0 ? "N/A" : RosterJson.formatAverage(averageSum[0] / totals[1])));
+        summary.println("Letter grades: " + letterCounts);
+        return 0;
+    }
+
+    private static int export(Map<String, String> options) throws IOException {
+        FileRosterStorage storage = openStorage(options, false);
+        String format = options.getOrDefault("format", "csv").toLowerCase(Locale.ROOT);
+        GradingPolicy policy = parsePolicy(options);
+        switch (format) {
+            case "csv" -> {
+                // Written by the storage itself, so exports and roster files share one CSV encoder.
+                try (WritableByteChannel channel = openOutputChannel(options.get("out"))) {
+                    storage.exportCsv(channel);
+                }
+            }
+            case "jsonl" -> {
+                try (Writer writer = openOutput(options.get("out"))) {
+                    forEachStudent(storage, student -> {
+                        student.setGradingPolicy(policy);
+                        RosterJson.appendStudent(student, writer);
+                        writer.write('\n');
+                    });
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown export format: " + format);
+        }
+        return 0;
+    }
+
+    private static int convert(List<String> arguments, Map<String, String> options) throws IOException {
+        if (arguments.size() != 2) {
+            throw new IllegalArgumentException("convert needs a source and a target file");
+        }
+        String target = arguments.get(1);
+        String format = options.get("format");
+        RosterFormat targetFormat = format == null
+                ? RosterFormat.forFileName(target)
+                : RosterFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        // Journaled edits not yet in the source file would otherwise be left out of the copy.
+        foldJournal(new FileRosterStorage(arguments.get(0)));
+        FileRosterStorage.convert(arguments.get(0), target, targetFormat);
+        Log.info("Converted " + arguments.get(0) + " to " + target + " (" + targetFormat + ").");
+        return 0;
+    }
+
+    // Starts the JSON API and returns; the server's threads keep the process alive. Changes are autosaved,
+    // and stopping the process applies and saves whatever is still queued.
+    private static int serve(Map<String, String> options) throws IOException {
+        FileRosterStorage storage = openStorage(options, true);
+        RosterService rosterService = RosterService.load(storage, MAX_STUDENTS, Boolean.getBoolean("gradetracker.journal"));
+        AutosaveTask autosaveTask = new AutosaveTask(rosterService);
+        RosterHttpServer server = new RosterHttpServer(rosterService, Integer.parseInt(options.getOrDefault("port", "8080")));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            try {
+                autosaveTask.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rosterService.close();
+            Metrics.stopReporting();
+            Log.flush();
+        }, "roster-api-shutdown"));
+        Metrics.startReporting();
+        server.start();
+        return 0;
+    }
+
+    // Prints the size of each course, then the grade distribution across the whole school.
+    private static int courses(Map<String, String> options) throws IOException {
+        try (CourseRegistry registry = openRegistry(options)) {
+            // Loads every course in parallel.
+            double mean = registry.getMean();
+            Map<String, Integer> letterCounts = registry.getLetterCounts();
+            for (String courseId : registry.courseIds()) {
+                System.out.println(courseId + ": " + registry.course(courseId).size() + " students");
+            }
+            System.out.println("School mean: " + RosterJson.formatAverage(mean));
+            System.out.println("Letter grades: " + letterCounts);
+        }
+        return 0;
+    }
+
+    private static int gpa(List<String> arguments, Map<String, String> options) throws IOException {
+        if (arguments.size() != 1) {
+            throw new IllegalArgumentException("gpa needs a student name");
+        }
+        try (CourseRegistry registry = openRegistry(options)) {
+            Map<String, Grade> grades = registry.gradesOf(arguments.get(0));
+            grades.forEach((courseId, grade) -> System.out.println(courseId + ": " + grade));
+            OptionalDouble gpa = registry.gpaOf(arguments.get(0));
+            System.out.println("GPA: " + (gpa.isPresent() ? String.format(Locale.ROOT, "%.2f", gpa.getAsDouble()) : "N/A"));
+            return grades.isEmpty() ? 1 : 0;
+        }
+    }
+
+    private static CourseRegistry openRegistry(Map<String, String> options) throws IOException {
+        CourseRegistry registry = new CourseRegistry(Path.of(options.getOrDefault("courses", CourseRegistry.DEFAULT_DIRECTORY)),
+                MAX_STUDENTS, Boolean.getBoolean("gradetracker.journal"));
+        Log.flush();
+        return registry;
+    }
+
+    // Opens the roster file and folds any journaled edits into it, so streaming readers see the current roster.
+    // A --course that does not exist yet is created (with its directory) when the command writes to it, and
+    // reported otherwise.
+    private static FileRosterStorage openStorage(Map<String, String> options, boolean create) throws IOException {
+        String courseId = options.get("course");
+        if (courseId != null) {
+            try (CourseRegistry registry = openRegistry(options)) {
+                if (!registry.hasCourse(courseId)) {
+                    if (!create) {
+                        throw new IllegalArgumentException("No such course: " + courseId);
+                    }
+                    registry.createCourse(courseId);
+                }
+            }
+        }
+        FileRosterStorage storage = courseId == null
+                ? new FileRosterStorage(options.getOrDefault("roster", "roster.csv"))
+                : CourseRegistry.storageFor(Path.of(options.getOrDefault("courses", CourseRegistry.DEFAULT_DIRECTORY)), courseId);
+        foldJournal(storage);
+        // Log messages are written asynchronously; let them out before the command writes its own output.
+        Log.flush();
+        return storage;
+    }
+
+    // Replays a pending journal and writes the result into the roster file, which then holds every edit.
+    private static void foldJournal(FileRosterStorage storage) throws IOException {
+        if (storage.hasPendingJournal()) {
+            RosterService journaled = RosterService.load(storage, MAX_STUDENTS, true);
+            boolean saved = journaled.saveData();
+            journaled.close();
+            if (!saved) {
+                throw new IOException("Could not fold the journal into " + storage.getFileName());
+            }
+        }
+    }
+
+    private static RosterReader openInput(String input) throws IOException {
+        if (input.equals("-")) {
+            return new RosterCsvReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        Path path = Path.of(input);
+        if (!Files.exists(path)) {
+            throw new IOException("Input file not found: " + input);
+        }
+        Reader reader = new FileReader(path.toFile(), StandardCharsets.UTF_8);
+        String lowerName = input.toLowerCase(Locale.ROOT);
+        if (lowerName.endsWith(".jsonl") || lowerName.endsWith(".ndjson")) {
+            return new JsonlRosterReader(reader);
+        }
+        return new RosterCsvReader(reader);
+    }
+
+    private static Writer openOutput(String out) throws IOException {
+        if (out == null) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush(); // Leave standard output open for the summary and later output.
+                }
+            };
+        }
+        return Files.newBufferedWriter(Path.of(out), StandardCharsets.UTF_8);
+    }
+
+    private static WritableByteChannel openOutputChannel(String out) throws IOException {
+        if (out == null) {
+            return Channels.newChannel(new FilterOutputStream(System.out) {
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush(); // Leave standard output open for later output.
+                }
+            });
+        }
+        return FileChannel.open(Path.of(out), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void forEachStudent(FileRosterStorage storage, StudentWriter writer) throws IOException {
+        try {
+            storage.forEachStudent(student -> {
+                try {
+                    writer.write(student);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // "standard", "drop-lowest:N", "curve:P" or "weighted:name:count:weight,...", on the scale given by --scale (90,80,70,60 by default).
+    private static GradingPolicy parsePolicy(Map<String, String> options) {
+        LetterScale scale = LetterScale.STANDARD;
+        String cutoffs = options.get("scale");
+        if (cutoffs != null) {
+            String[] parts = cutoffs.split(",");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("--scale needs four cutoffs, e.g. 90,80,70,60");
+            }
+            scale = new LetterScale(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim()));
+        }
+        String policy = options.getOrDefault("policy", "standard");
+        int colon = policy.indexOf(':');
+        String name = colon < 0 ? policy : policy.substring(0, colon);
+        String argument = colon < 0 ? null : policy.substring(colon + 1);
+        return switch (name) {
+            case "standard" -> scale == LetterScale.STANDARD ? GradingPolicy.STANDARD : GradingPolicy.standard(scale);
+            case "drop-lowest" -> GradingPolicy.dropLowest(argument == null ? 1 : Integer.parseInt(argument), scale);
+            case "curve" -> {
+                if (argument == null) throw new IllegalArgumentException("curve needs a number of points, e.g. curve:5");
+                yield GradingPolicy.curved(Double.parseDouble(argument), scale);
+            }
+            case "weighted" -> {
+                if (argument == null) throw new IllegalArgumentException("weighted needs categories, e.g. weighted:homework:5:40,exams:2:60");
+                List<GradingPolicy.Category> categories = new ArrayList<>();
+                for (String category : argument.split(",")) {
+                    String[] parts = category.split(":");
+                    if (parts.length != 3) {
+                        throw new IllegalArgumentException("A weighted category is name:count:weight, not " + category);
+                    }
+                    categories.add(new GradingPolicy.Category(parts[0].trim(), Integer.parseInt(parts[1].trim()),
+                            Double.parseDouble(parts[2].trim())));
+                }
+                yield GradingPolicy.weighted(categories, scale);
+            }
+            default -> throw new IllegalArgumentException("Unknown grading policy: " + policy);
+        };
+    }
+
+    private static boolean isStorableName(String name) {
+        return name.indexOf(',') < 0 && name.indexOf('\n') < 0 && name.indexOf('\r') < 0;
+    }
+
+    // Splits the arguments after the command into positional arguments and "--name value" options.
+    // "--replace" is a flag and takes no value.
+    private static Map<String, String> parseOptions(String[] args, List<String> arguments) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                arguments.add(args[i]);
+                continue;
+            }
+            String name = args[i].substring(2);
+            if (name.equals("replace")) {
+                options.put(name, "true");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + name);
+            }
+        }
+        return options;
+    }
+}
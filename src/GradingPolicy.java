@@ -0,0 +1,106 @@
+// GradingPolicy.java
+import java.util.List;
+
+// Turns a student's scores into a Grade. Students cache the result until their scores or policy change,
+// so a policy is applied once per edit rather than on every read.
+public interface GradingPolicy {
+
+    // Plain mean of all scores on the standard 90/80/70/60 scale; every student's default policy.
+    GradingPolicy STANDARD = standard(LetterScale.STANDARD);
+
+    // Called with the student's monitor held, so the scores cannot change while they are graded.
+    Grade grade(Student student);
+
+    // Plain mean of all scores on a custom scale.
+    static GradingPolicy standard(LetterScale scale) {
+        return student -> {
+            double average = mean(student.getScoreSum(), student.getScoreCount());
+            return new Grade(average, scale.letterFor(average));
+        };
+    }
+
+    // Mean of the scores after dropping the lowest ones. At least one score is always kept.
+    static GradingPolicy dropLowest(int dropped, LetterScale scale) {
+        if (dropped < 0) {
+            throw new IllegalArgumentException("Cannot drop a negative number of scores: " + dropped);
+        }
+        return student -> {
+            int count = student.getScoreCount();
+            int drop = Math.min(dropped, Math.max(0, count - 1));
+            long sum = student.getScoreSum();
+            if (drop > 0) {
+                // Scores are 0-100, so counting them per value finds the lowest ones without sorting.
+                int[] counts = new int[101];
+                student.forEachScore(score -> counts[score]++);
+                int remaining = drop;
+                for (int score = 0; remaining > 0; score++) {
+                    int taken = Math.min(remaining, counts[score]);
+                    sum -= (long) taken * score;
+                    remaining -= taken;
+                }
+            }
+            double average = mean(sum, count - drop);
+            return new Grade(average, scale.letterFor(average));
+        };
+    }
+
+    // Mean of all scores raised by a flat number of points, capped at 100.
+    static GradingPolicy curved(double points, LetterScale scale) {
+        return student -> {
+            int count = student.getScoreCount();
+            double average = count == 0 ? 0.0 : Math.max(0, Math.min(100, mean(student.getScoreSum(), count) + points));
+            return new Grade(average, scale.letterFor(average));
+        };
+    }
+
+    // One category of a weighted policy: the next `scores` scores in the order they were entered, counting
+    // for `weight` of the grade. Weights are relative, so 40 and 60 work as well as 0.4 and 0.6.
+    record Category(String name, int scores, double weight) {
+        public Category {
+            if (scores <= 0) {
+                throw new IllegalArgumentException("Category " + name + " needs at least one score, not " + scores);
+            }
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Category " + name + " needs a positive weight, not " + weight);
+            }
+        }
+    }
+
+    // Weighted mean of category means, e.g. homework then exams. Scores carry no category of their own, so
+    // they are assigned by position, like the columns of a gradebook: each category takes its number of
+    // scores in turn and the last one also takes any scores past the end. Categories without scores yet
+    // are left out and the weights of the others scaled up, so early grades are not dragged towards zero.
+    static GradingPolicy weighted(List<Category> categories, LetterScale scale) {
+        if (categories.isEmpty()) {
+            throw new IllegalArgumentException("A weighted policy needs at least one category");
+        }
+        Category[] ordered = categories.toArray(new Category[0]);
+        return student -> {
+            long[] sums = new long[ordered.length];
+            int[] counts = new int[ordered.length];
+            int[] current = new int[1];
+            student.forEachScore(score -> {
+                int category = current[0];
+                if (counts[category] == ordered[category].scores() && category < ordered.length - 1) {
+                    current[0] = ++category;
+                }
+                sums[category] += score;
+                counts[category]++;
+            });
+            double weighted = 0;
+            double weights = 0;
+            for (int i = 0; i < ordered.length; i++) {
+                if (counts[i] > 0) {
+                    weighted += mean(sums[i], counts[i]) * ordered[i].weight();
+                    weights += ordered[i].weight();
+                }
+            }
+            double average = weights == 0 ? 0.0 : weighted / weights;
+            return new Grade(average, scale.letterFor(average));
+        };
+    }
+
+    private static double mean(long sum, int count) {
+        return count == 0 ? 0.0 : sum / (double) count;
+    }
+}
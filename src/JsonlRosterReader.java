@@ -0,0 +1,259 @@
+// JsonlRosterReader.java
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Streams students out of a JSON Lines file, one object per line:
+//   {"name": "Alice Smith", "scores": [95, 88]}
+// A single "score" number is accepted in place of the "scores" array, and any other field is skipped.
+// The parser understands exactly the JSON these records need (strings, numbers, booleans, null, and nested
+// arrays and objects inside skipped fields). Input is read one line at a time, so memory use does not grow
+// with the size of the file.
+public class JsonlRosterReader implements RosterReader {
+
+    private final BufferedReader reader;
+    private String line;
+    private int position;
+    private int lineNumber;
+
+    // Reused between records.
+    private final StringBuilder text = new StringBuilder();
+    private int[] scores = new int[16];
+    private int count;
+
+    public JsonlRosterReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    // Reads the next student, or returns null once the input is exhausted. Blank lines are skipped.
+    @Override
+    public Student readStudent() throws IOException {
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            position = 0;
+            skipWhitespace();
+            if (position < line.length()) {
+                return parseRecord();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int[] lastScores() {
+        return Arrays.copyOf(scores, count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Student parseRecord() throws IOException {
+        String name = null;
+        count = 0;
+        expect('{');
+        skipWhitespace();
+        if (peek() != '}') {
+            do {
+                skipWhitespace();
+                String field = parseString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                switch (field) {
+                    case "name" -> name = parseString();
+                    case "scores" -> parseScores();
+                    case "score" -> addScore(parseScore());
+                    default -> skipValue();
+                }
+                skipWhitespace();
+            } while (consume(','));
+        }
+        expect('}');
+        skipWhitespace();
+        if (position < line.length()) {
+            throw malformed("unexpected text after the record");
+        }
+        if (name == null || name.isBlank()) {
+            throw malformed("the record has no \"name\"");
+        }
+        Student student = new Student(name.trim());
+        student.setScores(scores, count);
+        return student;
+    }
+
+    // Reads an array of scores, or null for no scores.
+    private void parseScores() throws IOException {
+        if (peek() == 'n') {
+            expectLiteral("null");
+            return;
+        }
+        expect('[');
+        skipWhitespace();
+        if (consume(']')) return;
+        do {
+            skipWhitespace();
+            addScore(parseScore());
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+    }
+
+    private void addScore(int score) {
+        if (count == scores.length) {
+            int[] grown = new int[count * 2];
+            System.arraycopy(scores, 0, grown, 0, count);
+            scores = grown;
+        }
+        scores[count++] = score;
+    }
+
+    // Scores must be whole numbers; "95" and "95.0" are both accepted.
+    private int parseScore() {
+        int start = position;
+        skipNumber();
+        String token = line.substring(start, position);
+        try {
+            double value = Double.parseDouble(token);
+            if (value == Math.rint(value) && Math.abs(value) <= Integer.MAX_VALUE) {
+                return (int) value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below with the line number.
+        }
+        throw new NumberFormatException("Invalid score on line " + lineNumber);
+    }
+
+    private String parseString() throws IOException {
+        expect('"');
+        int start = position;
+        // Fast path: most strings have no escapes and are returned as a single substring.
+        while (position < line.length()) {
+            char c = line.charAt(position);
+            if (c == '"') {
+                return line.substring(start, position++);
+            }
+            if (c == '\\') break;
+            position++;
+        }
+        text.setLength(0);
+        text.append(line, start, position);
+        while (position < line.length()) {
+            char c = line.charAt(position++);
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            if (position >= line.length()) break;
+            char escaped = line.charAt(position++);
+            switch (escaped) {
+                case '"', '\\', '/' -> text.append(escaped);
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'u' -> {
+                    if (position + 4 > line.length()) throw malformed("truncated \\u escape");
+                    try {
+                        text.append((char) Integer.parseInt(line, position, position + 4, 16));
+                    } catch (NumberFormatException e) {
+                        throw malformed("invalid \\u escape");
+                    }
+                    position += 4;
+                }
+                default -> throw malformed("invalid escape \\" + escaped);
+            }
+        }
+        throw malformed("unterminated string");
+    }
+
+    // Skips over any JSON value, including nested arrays and objects.
+    private void skipValue() throws IOException {
+        switch (peek()) {
+            case '"' -> parseString();
+            case 't' -> expectLiteral("true");
+            case 'f' -> expectLiteral("false");
+            case 'n' -> expectLiteral("null");
+            case '[' -> {
+                position++;
+                skipWhitespace();
+                if (consume(']')) return;
+                do {
+                    skipWhitespace();
+                    skipValue();
+                    skipWhitespace();
+                } while (consume(','));
+                expect(']');
+            }
+            case '{' -> {
+                position++;
+                skipWhitespace();
+                if (consume('}')) return;
+                do {
+                    skipWhitespace();
+                    parseString();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    skipValue();
+                    skipWhitespace();
+                } while (consume(','));
+                expect('}');
+            }
+            default -> {
+                int start = position;
+                skipNumber();
+                if (position == start) throw malformed("unexpected character");
+            }
+        }
+    }
+
+    private void skipNumber() {
+        while (position < line.length()) {
+            char c = line.charAt(position);
+            if ((c < '0' || c > '9') && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') break;
+            position++;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+    }
+
+    private int peek() {
+        return position < line.length() ? line.charAt(position) : -1;
+    }
+
+    private boolean consume(char expected) {
+        if (peek() == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) throws IOException {
+        if (!consume(expected)) {
+            throw malformed("expected '" + expected + "'");
+        }
+    }
+
+    private void expectLiteral(String literal) throws IOException {
+        if (!line.startsWith(literal, position)) {
+            throw malformed("expected " + literal);
+        }
+        position += literal.length();
+    }
+
+    private IOException malformed(String problem) {
+        return new IOException("Malformed JSON on line " + lineNumber + ", column " + (position + 1) + ": " + problem);
+    }
+}
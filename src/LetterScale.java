@@ -0,0 +1,41 @@
+// LetterScale.java
+// Maps an average to a letter grade through a table precomputed for every whole average from 0 to 100,
+// so a lookup is a single array access instead of a chain of comparisons.
+public final class LetterScale {
+
+    public static final LetterScale STANDARD = new LetterScale(90, 80, 70, 60);
+
+    private final int[] cutoffs;
+    private final String[] letters = new String[101];
+
+    // Lowest averages that still earn an A, B, C and D; anything below the D cutoff is an F.
+    public LetterScale(int a, int b, int c, int d) {
+        if (!(100 >= a && a >= b && b >= c && c >= d && d >= 0)) {
+            throw new IllegalArgumentException("Cutoffs must descend within 0-100: " + a + "/" + b + "/" + c + "/" + d);
+        }
+        this.cutoffs = new int[] {a, b, c, d};
+        for (int average = 0; average <= 100; average++) {
+            if (average >= a) {
+                letters[average] = "A";
+            } else if (average >= b) {
+                letters[average] = "B";
+            } else if (average >= c) {
+                letters[average] = "C";
+            } else if (average >= d) {
+                letters[average] = "D";
+            } else {
+                letters[average] = "F";
+            }
+        }
+    }
+
+    // The cutoffs are whole numbers, so the letter only depends on the whole part of the average.
+    public String letterFor(double average) {
+        return letters[(int) Math.max(0, Math.min(100, average))];
+    }
+
+    @Override
+    public String toString() {
+        return "A>=" + cutoffs[0] + " B>=" + cutoffs[1] + " C>=" + cutoffs[2] + " D>=" + cutoffs[3];
+    }
+}
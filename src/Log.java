@@ -0,0 +1,116 @@
+// Log.java
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Asynchronous, level-gated logger used instead of printing to System.out and System.err directly.
+// Messages below -Dgradetracker.logLevel (INFO by default) are discarded after one comparison. Enabled
+// messages are queued and written by a single background thread, so callers never wait on console I/O.
+// INFO and DEBUG messages go to standard output prefixed with "LOG:" and "DEBUG:"; WARN and ERROR messages
+// go to standard error unchanged. Whatever is still queued is written when the JVM shuts down.
+public final class Log {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final Level LEVEL = Level.valueOf(System.getProperty("gradetracker.logLevel", "INFO").toUpperCase(Locale.ROOT));
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final long FLUSH_TIMEOUT_MS = 2000;
+
+    // A queued message, or a flush marker when done is set.
+    private static final class Entry {
+        final Level level;
+        final String message;
+        final CountDownLatch done;
+
+        Entry(Level level, String message, CountDownLatch done) {
+            this.level = level;
+            this.message = message;
+            this.done = done;
+        }
+    }
+
+    private static final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // INFO and DEBUG messages that found the queue full; warnings and errors wait for room instead.
+    private static final LongAdder dropped = Metrics.counter("log.dropped");
+
+    static {
+        Thread writer = new Thread(Log::writeLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+    }
+
+    private Log() {
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(LEVEL) >= 0;
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message);
+    }
+
+    // Waits until every message logged so far has been written.
+    public static void flush() {
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            if (queue.offer(new Entry(null, null, done), FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                done.await(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void log(Level level, String message) {
+        if (!isEnabled(level)) return;
+        Entry entry = new Entry(level, message, null);
+        if (level.compareTo(Level.WARN) >= 0) {
+            try {
+                queue.put(entry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private static void writeLoop() {
+        while (true) {
+            Entry entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (entry.done != null) {
+                System.out.flush();
+                System.err.flush();
+                entry.done.countDown();
+                continue;
+            }
+            switch (entry.level) {
+                case DEBUG -> System.out.println("DEBUG: " + entry.message);
+                case INFO -> System.out.println("LOG: " + entry.message);
+                case WARN, ERROR -> System.err.println(entry.message);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+// Metrics.java
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+// Process-wide registry of counters, gauges and latency histograms.
+// Recording is lock-free: counters are LongAdders and histograms are LatencyHistograms, looked up once and
+// kept in static fields by the classes that record them. Gauges are read only when the metrics are.
+// startReporting() publishes everything as the JMX MBean "gradetracker:type=Metrics" and, when
+// -Dgradetracker.metricsFile is set, appends a snapshot to that file every
+// -Dgradetracker.metricsIntervalSeconds (60 by default).
+public final class Metrics {
+
+    private static final String OBJECT_NAME = "gradetracker:type=Metrics";
+
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // Guarded by Metrics.class.
+    private static ScheduledExecutorService dumper;
+    private static ObjectName registeredName;
+
+    private Metrics() {
+    }
+
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    // Registers a value that is read whenever the metrics are; a later gauge with the same name replaces it.
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public static void removeGauge(String name) {
+        gauges.remove(name);
+    }
+
+    // Current value of every metric, by name. Each histogram contributes its count, mean, p50, p99 and max
+    // in nanoseconds as "<name>.count", "<name>.mean_ns" and so on.
+    public static Map<String, Number> snapshot() {
+        Map<String, Number> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        histograms.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".mean_ns", histogram.getMean());
+            values.put(name + ".p50_ns", histogram.getPercentile(50));
+            values.put(name + ".p99_ns", histogram.getPercentile(99));
+            values.put(name + ".max_ns", histogram.getMax());
+        });
+        return values;
+    }
+
+    // Publishes the metrics over JMX and starts the periodic dump file, if one is configured.
+    public static synchronized void startReporting() {
+        if (registeredName == null) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(OBJECT_NAME);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(new MetricsMBean(), name);
+                    registeredName = name;
+                }
+            } catch (JMException e) {
+                Log.warn("Could not register metrics MBean: " + e.getMessage());
+            }
+        }
+
+        String file = System.getProperty("gradetracker.metricsFile");
+        if (file != null && dumper == null) {
+            long interval = Long.getLong("gradetracker.metricsIntervalSeconds", 60);
+            dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Path path = Path.of(file);
+            dumper.scheduleAtFixedRate(() -> dump(path), interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    // Stops the dump thread after writing one last snapshot, and unregisters the MBean.
+    public static synchronized void stopReporting() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+            String file = System.getProperty("gradetracker.metricsFile");
+            if (file != null) dump(Path.of(file));
+        }
+        if (registeredName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            } catch (JMException e) {
+                Log.warn("Could not unregister metrics MBean: " + e.getMessage());
+            }
+            registeredName = null;
+        }
+    }
+
+    // Appends one "timestamp,name,value" line per metric.
+    private static void dump(Path path) {
+        String timestamp = Instant.now().toString();
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Map.Entry<String, Number> metric : snapshot().entrySet()) {
+                writer.write(timestamp + "," + metric.getKey() + "," + metric.getValue() + "\n");
+            }
+        } catch (IOException e) {
+            Log.warn("Error writing metrics file: " + e.getMessage());
+        }
+    }
+
+    // Exposes every metric as a read-only attribute. The attribute list is built from the registry on each
+    // request, so metrics registered later show up without re-registering the bean.
+    private static final class MetricsMBean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Number value = snapshot().get(attribute);
+            if (value == null) throw new AttributeNotFoundException(attribute);
+            return value;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Number> values = snapshot();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                Number value = values.get(attribute);
+                if (value != null) list.add(new Attribute(attribute, value));
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            Map<String, Number> values = snapshot();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+            int i = 0;
+            for (Map.Entry<String, Number> metric : values.entrySet()) {
+                attributes[i++] = new MBeanAttributeInfo(metric.getKey(), metric.getValue().getClass().getName(),
+                        metric.getKey(), true, false, false);
+            }
+            return new MBeanInfo(Metrics.class.getName(), "Grade Tracker metrics", attributes, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+// MutationBatcher.java
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+// Funnels score additions from many concurrent callers through one applier thread.
+// Callers enqueue a mutation and wait on its future; the applier drains everything queued so far and applies
+// it as one group, so a burst of HTTP requests becomes a few large batches instead of thousands of threads
+// contending for the roster lock. The queue is bounded: when it is full, addScores() waits for room.
+public final class MutationBatcher implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 65536;
+    private static final int MAX_BATCH_SIZE = 4096;
+
+    private static final LongAdder BATCHES = Metrics.counter("batcher.batches");
+    private static final LongAdder MUTATIONS = Metrics.counter("batcher.mutations");
+
+    // Scores to add to one student; completes with the number of scores that were accepted.
+    private static final class Mutation {
+        final Student student;
+        final int[] scores;
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        Mutation(Student student, int[] scores) {
+            this.student = student;
+            this.scores = scores;
+        }
+    }
+
+    private final RosterService rosterService;
+    private final BlockingQueue<Mutation> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread applier;
+    private volatile boolean closed;
+
+    public MutationBatcher(RosterService rosterService) {
+        this.rosterService = rosterService;
+        this.applier = new Thread(this::applyLoop, "roster-mutations");
+        applier.setDaemon(true);
+        applier.start();
+        Metrics.gauge("batcher.queued", queue::size);
+    }
+
+    // Queues scores to be added to the student. The future completes once they are applied, with the
+    // number of scores that were in range.
+    public CompletableFuture<Integer> addScores(Student student, int[] scores) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("The mutation batcher is closed");
+        }
+        Mutation mutation = new Mutation(student, scores);
+        queue.put(mutation);
+        // If close() won the race, the applier may already be gone: take the mutation back and fail it.
+        if (closed && queue.remove(mutation)) {
+            mutation.result.completeExceptionally(new IllegalStateException("The mutation batcher is closed"));
+        }
+        return mutation.result;
+    }
+
+    // Applies whatever is still queued and stops the applier thread.
+    @Override
+    public void close() {
+        closed = true;
+        applier.interrupt();
+        try {
+            applier.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Metrics.removeGauge("batcher.queued");
+    }
+
+    private void applyLoop() {
+        List<Mutation> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            apply(batch);
+            batch.clear();
+        }
+        // Closed: apply what was accepted before close().
+        while (queue.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+            apply(batch);
+            batch.clear();
+        }
+    }
+
+    // Applies the group as one RosterService batch: a single validation pass, one listener notification and
+    // one dirty mark. Each operation is tied to the student object the request looked up, and the batch is
+    // rejected if any of them has been removed or renamed since; the group then falls back to one call per
+    // score, which skips just those students, so the other requests still go through.
+    private void apply(List<Mutation> batch) {
+        RosterBatch rosterBatch = new RosterBatch();
+        int[] accepted = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Mutation mutation = batch.get(i);
+            int[] scores = inRange(mutation.scores);
+            if (scores.length > 0) {
+                rosterBatch.addScores(mutation.student, scores);
+                accepted[i] = scores.length;
+            }
+        }
+        try {
+            rosterService.applyBatch(rosterBatch);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(accepted[i]);
+            }
+        } catch (IllegalArgumentException e) {
+            applyEach(batch);
+        }
+        BATCHES.increment();
+        MUTATIONS.add(batch.size());
+    }
+
+    private void applyEach(List<Mutation> batch) {
+        for (Mutation mutation : batch) {
+            try {
+                int accepted = 0;
+                // addScore() itself refuses a student that is gone; checking first skips the whole mutation.
+                if (rosterService.findStudent(mutation.student.getName()) != mutation.student) {
+                    mutation.result.complete(0);
+                    continue;
+                }
+                for (int score : mutation.scores) {
+                    if (rosterService.addScore(mutation.student, score)) {
+                        accepted++;
+                    }
+                }
+                mutation.result.complete(accepted);
+            } catch (RuntimeException e) {
+                mutation.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static int[] inRange(int[] scores) {
+        int valid = 0;
+        for (int score : scores) {
+            if (score >= 0 && score <= 100) valid++;
+        }
+        if (valid == scores.length) return scores;
+        int[] kept = new int[valid];
+        int i = 0;
+        for (int score : scores) {
+            if (score >= 0 && score <= 100) kept[i++] = score;
+        }
+        return kept;
+    }
+}
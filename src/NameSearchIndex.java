@@ -0,0 +1,387 @@
+// NameSearchIndex.java
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Type-ahead search over the names in a RosterService.
+// Registered as a RosterListener, it keeps two indexes up to date as students are added, removed and renamed:
+//  - two tries, one holding every name and one holding it again from the start of each later word, so "smi"
+//    finds "Smithers" and "Alice Smith" by walking three nodes instead of scanning the roster;
+//  - a trigram index of each word, which finds names for a query with typos: names sharing the most trigrams
+//    with the query are checked with an edit distance, allowing one typo in 4-7 characters and two beyond.
+// search() ranks exact names first, then names starting with the query, then names with a later word starting
+// with it, then typo matches by fewest edits. Within each group the shortest completion of the query (the rest
+// of the name from the matching word) ranks highest, then the first alphabetically. The tries are walked in
+// that same order, name trie first, so a search stops as soon as it has its best matches.
+public final class NameSearchIndex implements RosterListener {
+
+    // Typo matches are only verified for this many trigram candidates per query.
+    private static final int MAX_FUZZY_CANDIDATES = 256;
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    // Ranks of a match; lower is better.
+    private static final int EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int FUZZY = 3;
+
+    private static final class TrieNode {
+        // Sorted child labels, and the child for each label.
+        char[] labels = NO_LABELS;
+        TrieNode[] children = NO_CHILDREN;
+        // Students with a name (or word) ending where this node's key ends.
+        Set<Student> ends;
+
+        TrieNode child(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            return i < 0 ? null : children[i];
+        }
+
+        TrieNode addChild(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i >= 0) return children[i];
+            i = -i - 1;
+            TrieNode child = new TrieNode();
+            char[] grownLabels = new char[labels.length + 1];
+            TrieNode[] grownChildren = new TrieNode[children.length + 1];
+            System.arraycopy(labels, 0, grownLabels, 0, i);
+            System.arraycopy(children, 0, grownChildren, 0, i);
+            grownLabels[i] = label;
+            grownChildren[i] = child;
+            System.arraycopy(labels, i, grownLabels, i + 1, labels.length - i);
+            System.arraycopy(children, i, grownChildren, i + 1, children.length - i);
+            labels = grownLabels;
+            children = grownChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i < 0) return;
+            if (labels.length == 1) {
+                labels = NO_LABELS;
+                children = NO_CHILDREN;
+                return;
+            }
+            char[] shrunkLabels = new char[labels.length - 1];
+            TrieNode[] shrunkChildren = new TrieNode[children.length - 1];
+            System.arraycopy(labels, 0, shrunkLabels, 0, i);
+            System.arraycopy(children, 0, shrunkChildren, 0, i);
+            System.arraycopy(labels, i + 1, shrunkLabels, i, labels.length - i - 1);
+            System.arraycopy(children, i + 1, shrunkChildren, i, children.length - i - 1);
+            labels = shrunkLabels;
+            children = shrunkChildren;
+        }
+
+        boolean isEmpty() {
+            return labels.length == 0 && (ends == null || ends.isEmpty());
+        }
+    }
+
+    // One ranked search result while a query is answered.
+    private static final class Match {
+        final Student student;
+        final String key;
+        // The part of the name that matched: from the start of the matching word for prefix matches.
+        final String completion;
+        final int rank;
+        final int edits;
+
+        Match(Student student, String key, String completion, int rank, int edits) {
+            this.student = student;
+            this.key = key;
+            this.completion = completion;
+            this.rank = rank;
+            this.edits = edits;
+        }
+    }
+
+    private static final Comparator<Match> BY_RANK = Comparator.<Match>comparingInt(match -> match.rank)
+            .thenComparingInt(match -> match.edits)
+            .thenComparingInt(match -> match.completion.length())
+            .thenComparing(match -> match.completion)
+            .thenComparing(match -> match.key);
+
+    private final RosterService rosterService;
+    // Guards every field below. Roster events update under the write lock; searches share the read lock.
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    // The normalized name each student is indexed under, to take the old name out again after a rename.
+    private final Map<Student, String> keys = new IdentityHashMap<>();
+    private final TrieNode names = new TrieNode();
+    private final TrieNode words = new TrieNode();
+    private final Map<String, Set<Student>> trigrams = new HashMap<>();
+
+    // Indexes the current roster and keeps the index in sync until close() is called.
+    public NameSearchIndex(RosterService rosterService) {
+        this.rosterService = rosterService;
+        indexLock.writeLock().lock();
+        try {
+            // Holding the lock while registering makes any change that races with the seeding wait for it.
+            for (Student student : rosterService.addRosterListener(this)) {
+                add(student);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    // Stops tracking the roster.
+    public void close() {
+        rosterService.removeRosterListener(this);
+    }
+
+    @Override
+    public void rosterChanged(List<RosterChange> changes) {
+        indexLock.writeLock().lock();
+        try {
+            for (RosterChange change : changes) {
+                Student student = change.getStudent();
+                switch (change.getType()) {
+                    case ADDED -> add(student);
+                    case REMOVED -> remove(student);
+                    case UPDATED -> {
+                        // Score changes leave the name alone; only a rename needs reindexing.
+                        String key = keys.get(student);
+                        if (key != null && !key.equals(normalize(student.getName()))) {
+                            remove(student);
+                            add(student);
+                        }
+                    }
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    // Up to limit students whose name matches the query, best match first (see the class comment).
+    // Case and repeated spaces are ignored; an empty query matches nobody.
+    public List<Student> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) return List.of();
+        indexLock.readLock().lock();
+        try {
+            Map<Student, Match> matches = new IdentityHashMap<>();
+            collectPrefixMatches(names, normalized, NAME_PREFIX, limit, matches);
+            if (matches.size() < limit) {
+                collectPrefixMatches(words, normalized, WORD_PREFIX, limit, matches);
+            }
+            if (matches.size() < limit) {
+                collectFuzzyMatches(normalized, matches);
+            }
+            List<Match> ranked = new ArrayList<>(matches.values());
+            ranked.sort(BY_RANK);
+            List<Student> students = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                students.add(ranked.get(i).student);
+            }
+            return students;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        indexLock.readLock().lock();
+        try {
+            return keys.size();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Walks to the query's node and takes students from its subtree breadth first, children in label order, so
+    // matches come in ranking order and no more than about limit nodes' worth of names are visited. Students
+    // already matched (by the name trie) keep their better rank.
+    private void collectPrefixMatches(TrieNode root, String query, int rank, int limit, Map<Student, Match> matches) {
+        TrieNode node = root;
+        for (int i = 0; i < query.length() && node != null; i++) {
+            node = node.child(query.charAt(i));
+        }
+        if (node == null) return;
+        List<TrieNode> level = List.of(node);
+        int depth = query.length();
+        while (!level.isEmpty()) {
+            List<TrieNode> nextLevel = new ArrayList<>();
+            for (TrieNode next : level) {
+                if (matches.size() >= limit) return;
+                if (next.ends != null) {
+                    for (Student student : next.ends) {
+                        if (matches.containsKey(student)) continue;
+                        String key = keys.get(student);
+                        int matchRank = rank == NAME_PREFIX && key.length() == query.length() ? EXACT : rank;
+                        matches.put(student, new Match(student, key, key.substring(key.length() - depth), matchRank, 0));
+                    }
+                }
+                Collections.addAll(nextLevel, next.children);
+            }
+            level = nextLevel;
+            depth++;
+        }
+    }
+
+    // Counts the trigrams each indexed name shares with the query, then checks the names sharing the most
+    // with a prefix edit distance against each of their words.
+    private void collectFuzzyMatches(String query, Map<Student, Match> matches) {
+        int maxEdits = maxEdits(query.length());
+        if (maxEdits == 0) return;
+        Map<Student, Integer> shared = new IdentityHashMap<>();
+        for (String trigram : trigramsOf(query)) {
+            Set<Student> students = trigrams.get(trigram);
+            if (students != null) {
+                for (Student student : students) {
+                    shared.merge(student, 1, Integer::sum);
+                }
+            }
+        }
+        List<Map.Entry<Student, Integer>> candidates = new ArrayList<>(shared.entrySet());
+        if (candidates.size() > MAX_FUZZY_CANDIDATES) {
+            candidates.sort(Map.Entry.<Student, Integer>comparingByValue().reversed());
+            candidates = candidates.subList(0, MAX_FUZZY_CANDIDATES);
+        }
+        for (Map.Entry<Student, Integer> candidate : candidates) {
+            Student student = candidate.getKey();
+            if (matches.containsKey(student)) continue;
+            String key = keys.get(student);
+            int edits = maxEdits + 1;
+            for (int start : wordStarts(key)) {
+                edits = Math.min(edits, prefixEditDistance(query, key, start, maxEdits));
+            }
+            if (edits <= maxEdits) {
+                matches.put(student, new Match(student, key, key, FUZZY, edits));
+            }
+        }
+    }
+
+    private void add(Student student) {
+        String key = normalize(student.getName());
+        if (keys.putIfAbsent(student, key) != null) return;
+        for (int start : wordStarts(key)) {
+            TrieNode node = start == 0 ? names : words;
+            for (int i = start; i < key.length(); i++) {
+                node = node.addChild(key.charAt(i));
+            }
+            if (node.ends == null) {
+                node.ends = Collections.newSetFromMap(new IdentityHashMap<>());
+            }
+            // Names with a repeated later word end at the same node twice.
+            node.ends.add(student);
+        }
+        for (String trigram : trigramsOf(key)) {
+            trigrams.computeIfAbsent(trigram, t -> Collections.newSetFromMap(new IdentityHashMap<>())).add(student);
+        }
+    }
+
+    private void remove(Student student) {
+        String key = keys.remove(student);
+        if (key == null) return;
+        for (int start : wordStarts(key)) {
+            removeFromTrie(start == 0 ? names : words, key, start, student);
+        }
+        for (String trigram : trigramsOf(key)) {
+            Set<Student> students = trigrams.get(trigram);
+            if (students != null && students.remove(student) && students.isEmpty()) {
+                trigrams.remove(trigram);
+            }
+        }
+    }
+
+    // Removes the student from the end of key[i..] below the node, pruning nodes left empty.
+    // Returns true if the node itself is now empty.
+    private static boolean removeFromTrie(TrieNode node, String key, int i, Student student) {
+        if (i == key.length()) {
+            if (node.ends != null) {
+                node.ends.remove(student);
+                if (node.ends.isEmpty()) {
+                    node.ends = null;
+                }
+            }
+        } else {
+            TrieNode child = node.child(key.charAt(i));
+            if (child != null && removeFromTrie(child, key, i + 1, student)) {
+                node.removeChild(key.charAt(i));
+            }
+        }
+        return node.isEmpty();
+    }
+
+    // Index of the first character of every word in a normalized name.
+    private static int[] wordStarts(String key) {
+        int[] starts = new int[key.isEmpty() ? 0 : 1 + (int) key.chars().filter(c -> c == ' ').count()];
+        for (int i = 1, start = 0; i < starts.length; i++) {
+            start = key.indexOf(' ', start) + 1;
+            starts[i] = start;
+        }
+        return starts;
+    }
+
+    // The trigrams of every word, each word padded with a leading space so its first letters count too.
+    private static Set<String> trigramsOf(String key) {
+        Set<String> grams = new HashSet<>();
+        for (String word : key.split(" ")) {
+            String padded = " " + word;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    // Smallest number of single-character insertions, deletions, substitutions and adjacent swaps that turn
+    // the query into some prefix of key[start..]. Stops early, returning maxEdits + 1, once that is exceeded.
+    private static int prefixEditDistance(String query, String key, int start, int maxEdits) {
+        int n = query.length();
+        int m = Math.min(key.length() - start, n + maxEdits);
+        int[] before = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = query.charAt(i - 1) == key.charAt(start + j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && query.charAt(i - 1) == key.charAt(start + j - 2)
+                        && query.charAt(i - 2) == key.charAt(start + j - 1)) {
+                    value = Math.min(value, before[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) return maxEdits + 1;
+            int[] recycled = before;
+            before = previous;
+            previous = current;
+            current = recycled;
+        }
+        // The query may end anywhere in the name, so the best of the last row counts.
+        int best = maxEdits + 1;
+        for (int j = 0; j <= m; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private static int maxEdits(int queryLength) {
+        if (queryLength < 4) return 0;
+        return queryLength < 8 ? 1 : 2;
+    }
+
+    // Lower case with single spaces, the form every name is indexed in.
+    private static String normalize(String name) {
+        return RosterService.key(name).replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,155 @@
+// ParallelRosterCsvReader.java
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Loads a large CSV roster on several cores at once.
+// The file is split in half recursively, with every split point moved forward to the start of the next line,
+// until the ranges are small enough to parse on their own. Each range is memory-mapped, decoded and parsed by
+// a RosterCsvReader on a fork/join worker, and the per-range batches are joined back together left to right,
+// so the result lists the students in file order exactly like a sequential read.
+public final class ParallelRosterCsvReader {
+
+    // Ranges below this size are not split further; smaller chunks cost more to schedule than they save.
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+    // Enough chunks per worker that a thread finishing early can steal work from a slower one.
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_BUFFER_SIZE = 4096;
+
+    private ParallelRosterCsvReader() {
+    }
+
+    public static List<Student> read(Path path) throws IOException {
+        return read(path, ForkJoinPool.commonPool());
+    }
+
+    // Reads every student in the file using the given pool. Duplicate names are kept; RosterService drops them.
+    public static List<Student> read(Path path, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkSize = Math.max(MIN_CHUNK_SIZE, size / ((long) pool.getParallelism() * CHUNKS_PER_THREAD));
+            try {
+                return pool.invoke(new ChunkTask(channel, 0, size, chunkSize));
+            } catch (UncheckedIOException e) {
+                throw original(e).getCause();
+            } catch (NumberFormatException e) {
+                throw original(e);
+            }
+        }
+    }
+
+    // Fork/join may rethrow a copy of a worker's exception on the joining thread, with the original as its cause,
+    // and a nested join copies the copy again.
+    @SuppressWarnings("unchecked")
+    private static <T extends RuntimeException> T original(T thrown) {
+        while (thrown.getCause() != null && thrown.getCause().getClass() == thrown.getClass()) {
+            thrown = (T) thrown.getCause();
+        }
+        return thrown;
+    }
+
+    // Parses the lines in [start, end). Both ends are line boundaries (or the ends of the file).
+    private static final class ChunkTask extends RecursiveTask<List<Student>> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Tasks are never serialized; the fields only live as long as the read.
+        private final transient FileChannel channel;
+        private final long start;
+        private final long end;
+        private final long chunkSize;
+
+        ChunkTask(FileChannel channel, long start, long end, long chunkSize) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected List<Student> compute() {
+            try {
+                if (end - start > chunkSize) {
+                    long middle = nextLineStart(start + (end - start) / 2);
+                    if (middle < end) {
+                        ChunkTask left = new ChunkTask(channel, start, middle, chunkSize);
+                        ChunkTask right = new ChunkTask(channel, middle, end, chunkSize);
+                        left.fork();
+                        List<Student> rightStudents = right.compute();
+                        List<Student> students = left.join();
+                        students.addAll(rightStudents);
+                        return students;
+                    }
+                }
+                return parse();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Returns the position just past the first '\n' at or after position, or end if the range has none.
+        private long nextLineStart(long position) throws IOException {
+            ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            while (position < end) {
+                scan.clear();
+                scan.limit((int) Math.min(SCAN_BUFFER_SIZE, end - position));
+                int read = channel.read(scan, position);
+                if (read <= 0) return end;
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') return position + i + 1;
+                }
+                position += read;
+            }
+            return end;
+        }
+
+        private List<Student> parse() throws IOException {
+            List<Student> students = new ArrayList<>();
+            if (end == start) return students;
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Roster line starting at byte " + start + " is too long to parse");
+            }
+            CharBuffer chars = StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+            RosterCsvReader reader = new RosterCsvReader(new CharArrayReader(chars.array(), chars.position(), chars.remaining()));
+            try (reader) {
+                Student student;
+                while ((student = reader.readStudent()) != null) {
+                    students.add(student);
+                }
+            } catch (NumberFormatException e) {
+                // The reader counts lines from the start of this chunk. Only a failing read pays for counting the
+                // lines before it, so the error names the same line a sequential read would.
+                throw new NumberFormatException("Invalid score on line " + (linesBefore(start) + reader.getLineNumber()));
+            }
+            return students;
+        }
+
+        // Number of lines that end before position.
+        private long linesBefore(long position) throws IOException {
+            ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            long lines = 0;
+            for (long offset = 0; offset < position; ) {
+                scan.clear();
+                scan.limit((int) Math.min(SCAN_BUFFER_SIZE, position - offset));
+                int read = channel.read(scan, offset);
+                if (read <= 0) break;
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') lines++;
+                }
+                offset += read;
+            }
+            return lines;
+        }
+    }
+}
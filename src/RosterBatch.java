@@ -0,0 +1,94 @@
+// RosterBatch.java
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// An ordered set of roster mutations for RosterService.applyBatch(), which validates and applies them as one unit.
+// Students are referred to by name, so a batch can add a student and give it scores in the same go; each
+// operation sees the roster as left by the operations before it.
+public final class RosterBatch {
+
+    enum Type { ADD_STUDENT, REMOVE_STUDENT, RENAME_STUDENT, RESTORE_STUDENT, ADD_SCORES, REPLACE_SCORES }
+
+    static final class Operation {
+        final Type type;
+        final String name;
+        final int[] scores;
+        // The new name for RENAME_STUDENT.
+        final String newName;
+        // The student object to put back for RESTORE_STUDENT, or the one ADD_SCORES is meant for (if any).
+        final Student student;
+
+        Operation(Type type, String name, int[] scores) {
+            this(type, name, scores, null, null);
+        }
+
+        Operation(Type type, String name, int[] scores, String newName, Student student) {
+            this.type = type;
+            this.name = name;
+            this.scores = scores;
+            this.newName = newName;
+            this.student = student;
+        }
+
+        @Override
+        public String toString() {
+            return switch (type) {
+                case ADD_STUDENT -> "add \"" + name + "\"";
+                case REMOVE_STUDENT -> "remove \"" + name + "\"";
+                case RENAME_STUDENT -> "rename \"" + name + "\" to \"" + newName + "\"";
+                case RESTORE_STUDENT -> "restore \"" + name + "\"";
+                case ADD_SCORES -> "add scores to \"" + name + "\"";
+                case REPLACE_SCORES -> "replace scores of \"" + name + "\"";
+            };
+        }
+    }
+
+    private static final int[] NO_SCORES = new int[0];
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    public void addStudent(String name) {
+        operations.add(new Operation(Type.ADD_STUDENT, name.trim(), NO_SCORES));
+    }
+
+    public void removeStudent(String name) {
+        operations.add(new Operation(Type.REMOVE_STUDENT, name.trim(), NO_SCORES));
+    }
+
+    public void renameStudent(String name, String newName) {
+        operations.add(new Operation(Type.RENAME_STUDENT, name.trim(), NO_SCORES, newName.trim(), null));
+    }
+
+    // Puts a student object that was removed from the roster back at the end, with the given name and
+    // scores. Used by RosterHistory, so that undo and redo keep each student's identity.
+    void restoreStudent(Student student, String name, int[] scores) {
+        operations.add(new Operation(Type.RESTORE_STUDENT, name.trim(), scores.clone(), null, student));
+    }
+
+    public void addScores(String name, int... scores) {
+        operations.add(new Operation(Type.ADD_SCORES, name.trim(), scores.clone()));
+    }
+
+    // Adds scores to this student object, which must still be in the roster under the name it has now when
+    // the batch is applied. Used by MutationBatcher, whose callers look students up before queueing scores.
+    void addScores(Student student, int[] scores) {
+        operations.add(new Operation(Type.ADD_SCORES, student.getName().trim(), scores.clone(), null, student));
+    }
+
+    public void replaceScores(String name, int... scores) {
+        operations.add(new Operation(Type.REPLACE_SCORES, name.trim(), scores.clone()));
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    List<Operation> operations() {
+        return Collections.unmodifiableList(operations);
+    }
+}
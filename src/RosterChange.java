@@ -0,0 +1,52 @@
+// RosterChange.java
+// One change to the roster, as published to RosterListeners.
+public final class RosterChange {
+
+    public enum Type {
+        // The student was inserted at getIndex().
+        ADDED,
+        // The student was removed from getIndex().
+        REMOVED,
+        // The student's name or scores changed; its position is unchanged and getIndex() is -1.
+        UPDATED
+    }
+
+    private final Type type;
+    private final int index;
+    private final Student student;
+
+    private RosterChange(Type type, int index, Student student) {
+        this.type = type;
+        this.index = index;
+        this.student = student;
+    }
+
+    public static RosterChange added(int index, Student student) {
+        return new RosterChange(Type.ADDED, index, student);
+    }
+
+    public static RosterChange removed(int index, Student student) {
+        return new RosterChange(Type.REMOVED, index, student);
+    }
+
+    public static RosterChange updated(Student student) {
+        return new RosterChange(Type.UPDATED, -1, student);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    @Override
+    public String toString() {
+        return type + (index >= 0 ? "@" + index : "") + " " + student.getName();
+    }
+}
@@ -0,0 +1,182 @@
+// RosterCsvReader.java
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Streams students out of the roster CSV, one line at a time.
+// Each line has the format "Name, Score1, Score2, ..." and is tokenized in a single pass over a
+// reused char buffer. Scores are parsed straight into an int array, so no regex, no boxing and
+// no per-score Strings are involved.
+public class RosterCsvReader implements RosterReader, Iterator<Student> {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int END_OF_INPUT = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    // Reused between lines so that only the student name allocates.
+    private final StringBuilder nameBuilder = new StringBuilder();
+    private int[] scores = new int[16];
+    // Number of scores on the line last read.
+    private int count;
+    private int lineNumber;
+
+    // Student read ahead by hasNext() but not yet returned by next().
+    private Student lookahead;
+
+    public RosterCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Reads the next student, or returns null once the input is exhausted.
+    // Blank lines are skipped, as are empty and "N/A" score columns.
+    @Override
+    public Student readStudent() throws IOException {
+        int c = read();
+        while (c != END_OF_INPUT) {
+            lineNumber++;
+
+            // The first column is the student name.
+            nameBuilder.setLength(0);
+            while (c != ',' && c != '\n' && c != END_OF_INPUT) {
+                nameBuilder.append((char) c);
+                c = read();
+            }
+
+            // Every following column is a score.
+            count = 0;
+            while (c == ',') {
+                c = skipWhitespace(read());
+                if (c == 'N' || c == 'n') {
+                    c = skipNotAvailable(c);
+                } else if (c != ',' && c != '\n' && c != END_OF_INPUT) {
+                    if (count == scores.length) {
+                        int[] grown = new int[count * 2];
+                        System.arraycopy(scores, 0, grown, 0, count);
+                        scores = grown;
+                    }
+                    c = parseScore(c, count++);
+                }
+            }
+
+            String name = trimmedName();
+            if (!name.isEmpty()) {
+                Student student = new Student(name);
+                student.setScores(scores, count);
+                return student;
+            }
+            // Nothing but whitespace on this line; move on to the next one.
+            c = read();
+        }
+        return null;
+    }
+
+    @Override
+    public int[] lastScores() {
+        return Arrays.copyOf(scores, count);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (lookahead == null) {
+            try {
+                lookahead = readStudent();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return lookahead != null;
+    }
+
+    @Override
+    public Student next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Student student = lookahead;
+        lookahead = null;
+        return student;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Parses an unsigned integer starting at c into scores[index] and returns the character after the column.
+    private int parseScore(int c, int index) throws IOException {
+        long value = 0;
+        boolean hasDigits = false;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw invalidScore();
+            }
+            hasDigits = true;
+            c = read();
+        }
+        c = skipWhitespace(c);
+        if (!hasDigits || (c != ',' && c != '\n' && c != END_OF_INPUT)) {
+            throw invalidScore();
+        }
+        scores[index] = (int) value;
+        return c;
+    }
+
+    // Consumes an "N/A" placeholder (case-insensitive) and returns the character after the column.
+    private int skipNotAvailable(int c) throws IOException {
+        int slash = read();
+        int a = read();
+        if (slash != '/' || (a != 'A' && a != 'a')) {
+            throw invalidScore();
+        }
+        c = skipWhitespace(read());
+        if (c != ',' && c != '\n' && c != END_OF_INPUT) {
+            throw invalidScore();
+        }
+        return c;
+    }
+
+    private int skipWhitespace(int c) throws IOException {
+        while (c == ' ' || c == '\t' || c == '\r') {
+            c = read();
+        }
+        return c;
+    }
+
+    // Returns the name column without surrounding whitespace, creating a single String.
+    private String trimmedName() {
+        int start = 0;
+        int end = nameBuilder.length();
+        while (start < end && Character.isWhitespace(nameBuilder.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(nameBuilder.charAt(end - 1))) end--;
+        return nameBuilder.substring(start, end);
+    }
+
+    // Number of the line last read, counting from 1.
+    int getLineNumber() {
+        return lineNumber;
+    }
+
+    private NumberFormatException invalidScore() {
+        return new NumberFormatException("Invalid score on line " + lineNumber);
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return END_OF_INPUT;
+            }
+        }
+        return buffer[position++];
+    }
+}
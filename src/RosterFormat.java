@@ -0,0 +1,33 @@
+// RosterFormat.java
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// On-disk formats a roster file can be stored in.
+public enum RosterFormat {
+    // Human-readable "Name, Score1, Score2, ..." lines.
+    CSV,
+    // Versioned binary layout (see BinaryRosterFormat) that is memory-mapped on load.
+    BINARY;
+
+    // Detects the format of an existing file from its header. Files without the binary magic are CSV.
+    public static RosterFormat detect(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = in.readNBytes(Integer.BYTES);
+            if (header.length == Integer.BYTES) {
+                int magic = ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16)
+                        | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+                if (magic == BinaryRosterFormat.MAGIC) {
+                    return BINARY;
+                }
+            }
+        }
+        return CSV;
+    }
+
+    // Format used for a file that does not exist yet, chosen by its extension.
+    public static RosterFormat forFileName(String fileName) {
+        return fileName.endsWith(".bin") ? BINARY : CSV;
+    }
+}
@@ -0,0 +1,289 @@
+// RosterHistory.java
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+// Undo/redo and point-in-time queries over a RosterService.
+// Registered as a RosterListener, it records every change as a new version: a PersistentIdentityMap from
+// each Student to an immutable copy of its name and scores. A version shares all unchanged entries with the
+// one before it, so it costs memory in proportion to what changed, not to the size of the roster.
+// undo() and redo() step between versions by applying the difference as one RosterService batch; removed
+// students are put back as the same objects (at the end of the roster), so later versions still match them.
+// The first version holds a copy of every student's scores; -Dgradetracker.history=false turns the history
+// off for rosters too large for that.
+public final class RosterHistory implements RosterListener {
+
+    // Oldest versions are dropped beyond this many (-Dgradetracker.historyLimit=N).
+    private static final int VERSION_LIMIT = Integer.getInteger("gradetracker.historyLimit", 10000);
+
+    // A student's name and scores as of one version.
+    private static final class State {
+        final String name;
+        final byte[] scores;
+
+        State(String name, byte[] scores) {
+            this.name = name;
+            this.scores = scores;
+        }
+
+        static State of(Student student) {
+            synchronized (student) {
+                int[] scores = student.copyScores();
+                byte[] bytes = new byte[scores.length];
+                for (int i = 0; i < scores.length; i++) {
+                    bytes[i] = (byte) scores[i];
+                }
+                return new State(student.getName(), bytes);
+            }
+        }
+
+        int[] scores() {
+            int[] values = new int[scores.length];
+            for (int i = 0; i < scores.length; i++) {
+                values[i] = scores[i];
+            }
+            return values;
+        }
+
+        boolean sameAs(State other) {
+            return other != null && name.equals(other.name) && Arrays.equals(scores, other.scores);
+        }
+
+        Student toStudent() {
+            Student student = new Student(name);
+            student.setScores(scores(), scores.length);
+            return student;
+        }
+    }
+
+    // The roster after one change, and the students that change touched.
+    private static final class Version {
+        final PersistentIdentityMap<Student, State> students;
+        final Student[] changed;
+
+        Version(PersistentIdentityMap<Student, State> students, Student[] changed) {
+            this.students = students;
+            this.changed = changed;
+        }
+    }
+
+    // The version the roster held from a point in time on; undo and redo add moments too.
+    private static final class Moment {
+        final long timeMillis;
+        final PersistentIdentityMap<Student, State> students;
+
+        Moment(long timeMillis, PersistentIdentityMap<Student, State> students) {
+            this.timeMillis = timeMillis;
+            this.students = students;
+        }
+    }
+
+    private final RosterService rosterService;
+
+    // Guarded by this. versions.get(current) matches the roster; versions after it can be redone.
+    private final List<Version> versions = new ArrayList<>();
+    private final List<Moment> timeline = new ArrayList<>();
+    private int current;
+    // The thread applying an undo or redo, and the versions it moves between.
+    private Thread restoringThread;
+    private int restoreFrom;
+    private int restoreTo;
+    private Runnable historyListener;
+
+    public RosterHistory(RosterService rosterService) {
+        this.rosterService = rosterService;
+        synchronized (this) {
+            // Holding the monitor while registering makes any change that races with the seeding wait for it.
+            PersistentIdentityMap<Student, State> students = PersistentIdentityMap.empty();
+            for (Student student : rosterService.addRosterListener(this)) {
+                students = students.with(student, State.of(student));
+            }
+            versions.add(new Version(students, new Student[0]));
+            timeline.add(new Moment(System.currentTimeMillis(), students));
+        }
+    }
+
+    // Stops recording changes.
+    public void close() {
+        rosterService.removeRosterListener(this);
+    }
+
+    // Registers a callback run (on the thread that changed the roster) whenever canUndo() or canRedo() may
+    // have changed.
+    public synchronized void setHistoryListener(Runnable listener) {
+        this.historyListener = listener;
+    }
+
+    public synchronized boolean canUndo() {
+        return current > 0;
+    }
+
+    public synchronized boolean canRedo() {
+        return current < versions.size() - 1;
+    }
+
+    // Reverts the most recent change that has not been undone. Returns false if there is none, or if the
+    // roster changed in a way that conflicts with it (the reason is logged).
+    public boolean undo() {
+        RosterBatch batch;
+        synchronized (this) {
+            if (current == 0) return false;
+            batch = difference(versions.get(current), versions.get(current - 1), versions.get(current).changed);
+            beginRestore(current - 1);
+        }
+        return restore(batch, "undo");
+    }
+
+    // Re-applies the most recently undone change.
+    public boolean redo() {
+        RosterBatch batch;
+        synchronized (this) {
+            if (current == versions.size() - 1) return false;
+            batch = difference(versions.get(current), versions.get(current + 1), versions.get(current + 1).changed);
+            beginRestore(current + 1);
+        }
+        return restore(batch, "redo");
+    }
+
+    // The student as it was at the given time: a detached copy with that time's name and scores, or null if
+    // the student was not in the roster then (or the time is older than the retained history).
+    public synchronized Student studentAt(Student student, Instant time) {
+        Moment moment = momentAt(time);
+        State state = moment == null ? null : moment.students.get(student);
+        return state == null ? null : state.toStudent();
+    }
+
+    // Detached copies of every student in the roster at the given time, sorted by name.
+    public List<Student> rosterAt(Instant time) {
+        PersistentIdentityMap<Student, State> students;
+        synchronized (this) {
+            Moment moment = momentAt(time);
+            if (moment == null) return List.of();
+            students = moment.students;
+        }
+        // Versions are immutable, so the copies are made without holding the monitor.
+        List<Student> roster = new ArrayList<>(students.size());
+        students.forEach((student, state) -> roster.add(state.toStudent()));
+        roster.sort(Comparator.comparing(Student::getName, String.CASE_INSENSITIVE_ORDER));
+        return roster;
+    }
+
+    @Override
+    public synchronized void rosterChanged(List<RosterChange> changes) {
+        Version base = versions.get(current);
+        PersistentIdentityMap<Student, State> students = base.students;
+        Set<Student> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (RosterChange change : changes) {
+            Student student = change.getStudent();
+            PersistentIdentityMap<Student, State> next;
+            if (change.getType() == RosterChange.Type.REMOVED) {
+                next = students.without(student);
+            } else {
+                State state = State.of(student);
+                next = state.sameAs(students.get(student)) ? students : students.with(student, state);
+            }
+            if (next != students) {
+                students = next;
+                changed.add(student);
+            }
+        }
+
+        if (restoringThread == Thread.currentThread() && current == restoreFrom) {
+            // Our own undo or redo, applied to the version it was computed from.
+            current = restoreTo;
+        } else if (!changed.isEmpty()) {
+            versions.subList(current + 1, versions.size()).clear();
+            versions.add(new Version(students, changed.toArray(new Student[0])));
+            current++;
+            if (versions.size() > VERSION_LIMIT) {
+                int dropped = Math.max(1, VERSION_LIMIT / 10);
+                versions.subList(0, dropped).clear();
+                current -= dropped;
+            }
+        } else {
+            return;
+        }
+        timeline.add(new Moment(System.currentTimeMillis(), versions.get(current).students));
+        if (timeline.size() > 2 * VERSION_LIMIT) {
+            timeline.subList(0, timeline.size() - VERSION_LIMIT).clear();
+        }
+        Runnable listener = historyListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    private void beginRestore(int target) {
+        restoringThread = Thread.currentThread();
+        restoreFrom = current;
+        restoreTo = target;
+    }
+
+    // Applies an undo or redo outside the monitor: the roster's write lock is taken first by every other
+    // change, and listeners are called under it.
+    private boolean restore(RosterBatch batch, String action) {
+        try {
+            rosterService.applyBatch(batch);
+            return true;
+        } catch (IllegalArgumentException e) {
+            Log.warn("Cannot " + action + " the last change: " + e.getMessage());
+            return false;
+        } finally {
+            synchronized (this) {
+                restoringThread = null;
+            }
+        }
+    }
+
+    // The batch that takes the roster from one version to the other, given the students that differ.
+    // Removals come first and additions last, so a name freed by one student can be taken by another.
+    private static RosterBatch difference(Version from, Version to, Student[] changed) {
+        RosterBatch batch = new RosterBatch();
+        for (Student student : changed) {
+            State before = from.students.get(student);
+            if (before != null && to.students.get(student) == null) {
+                batch.removeStudent(before.name);
+            }
+        }
+        for (Student student : changed) {
+            State before = from.students.get(student);
+            State after = to.students.get(student);
+            if (before != null && after != null && !before.name.equals(after.name)) {
+                batch.renameStudent(before.name, after.name);
+            }
+        }
+        for (Student student : changed) {
+            State before = from.students.get(student);
+            State after = to.students.get(student);
+            if (before == null && after != null) {
+                batch.restoreStudent(student, after.name, after.scores());
+            } else if (before != null && after != null && !Arrays.equals(before.scores, after.scores)) {
+                batch.replaceScores(after.name, after.scores());
+            }
+        }
+        return batch;
+    }
+
+    private Moment momentAt(Instant time) {
+        long millis = time.toEpochMilli();
+        int low = 0;
+        int high = timeline.size() - 1;
+        Moment found = null;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Moment moment = timeline.get(middle);
+            if (moment.timeMillis <= millis) {
+                found = moment;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+}
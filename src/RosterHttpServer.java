@@ -0,0 +1,224 @@
+// RosterHttpServer.java
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Local JSON API over a RosterService, for other tools on the same machine.
+//   GET  /students?offset=0&limit=100   a page of the roster, with the total number of students
+//   GET  /students/<name>               one student, or 404
+//   POST /scores                        JSON Lines body, one {"name": ..., "scores": [...]} per line;
+//                                       adds the scores to existing students through a MutationBatcher
+//   GET  /stats                         class statistics from a RosterStatistics
+// Every request runs on its own virtual thread. Reads go straight to the lock-free name index or take the
+// roster read lock briefly; writes wait on the batcher, so blocked requests cost no platform threads and
+// nothing runs on the FX thread. The server binds to the loopback address only.
+public final class RosterHttpServer {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private static final LatencyHistogram REQUEST_TIME = Metrics.histogram("http.request");
+    private static final LongAdder ERRORS = Metrics.counter("http.errors");
+
+    private final RosterService rosterService;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MutationBatcher batcher;
+    private final RosterStatistics statistics;
+
+    // Binds to the port on the loopback address; port 0 picks a free one (see getPort()).
+    public RosterHttpServer(RosterService rosterService, int port) throws IOException {
+        this.rosterService = rosterService;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.batcher = new MutationBatcher(rosterService);
+        this.statistics = new RosterStatistics(rosterService);
+        server.setExecutor(executor);
+        server.createContext("/students", exchange -> handle(exchange, "GET", true, this::getStudents));
+        server.createContext("/scores", exchange -> handle(exchange, "POST", false, this::postScores));
+        server.createContext("/stats", exchange -> handle(exchange, "GET", false, this::getStats));
+    }
+
+    public void start() {
+        server.start();
+        Log.info("Roster API listening on http://" + server.getAddress().getHostString() + ":" + getPort() + "/");
+    }
+
+    // Stops accepting requests, lets running ones finish and applies any queued mutations.
+    public void stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.close();
+        batcher.close();
+        statistics.close();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Runs one request: checks the path and method, maps failures to error responses and always closes the
+    // exchange. Contexts match any path that starts with theirs, so only the exact path is served, plus
+    // "<context>/..." where the handler takes a sub-path.
+    private void handle(HttpExchange exchange, String method, boolean subPaths, Handler handler) {
+        long start = System.nanoTime();
+        try {
+            String context = exchange.getHttpContext().getPath();
+            String path = exchange.getRequestURI().getPath();
+            if (!path.equals(context) && !(subPaths && path.startsWith(context + "/"))) {
+                sendError(exchange, 404, "No such resource");
+            } else if (!exchange.getRequestMethod().equals(method)) {
+                sendError(exchange, 405, "Use " + method);
+            } else {
+                handler.handle(exchange);
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Malformed request bodies and parameters; scores from earlier records of a bad body are kept.
+            sendError(exchange, 400, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Interrupted");
+        } catch (ExecutionException | IllegalStateException e) {
+            sendError(exchange, 503, "The roster is shutting down");
+        } finally {
+            exchange.close();
+            REQUEST_TIME.recordSince(start);
+        }
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException, InterruptedException, ExecutionException;
+    }
+
+    private void getStudents(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        StringBuilder body = new StringBuilder();
+        if (path.length() > "/students/".length()) {
+            Student student = rosterService.findStudent(path.substring("/students/".length()));
+            if (student == null) {
+                sendError(exchange, 404, "No such student");
+                return;
+            }
+            RosterJson.appendStudent(student, body);
+        } else {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            int offset = Integer.parseInt(query.getOrDefault("offset", "0"));
+            int limit = Math.min(MAX_PAGE_SIZE, Integer.parseInt(query.getOrDefault("limit", Integer.toString(DEFAULT_PAGE_SIZE))));
+            body.append("{\"total\":").append(rosterService.size())
+                    .append(",\"offset\":").append(offset)
+                    .append(",\"students\":[");
+            List<Student> page = rosterService.getPage(offset, limit);
+            for (int i = 0; i < page.size(); i++) {
+                if (i > 0) body.append(',');
+                RosterJson.appendStudent(page.get(i), body);
+            }
+            body.append("]}");
+        }
+        send(exchange, 200, body);
+    }
+
+    private void postScores(HttpExchange exchange) throws IOException, InterruptedException, ExecutionException {
+        int records = 0;
+        int unknown = 0;
+        int submitted = 0;
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        try (JsonlRosterReader reader = new JsonlRosterReader(
+                new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            Student record;
+            while ((record = reader.readStudent()) != null) {
+                records++;
+                Student student = rosterService.findStudent(record.getName());
+                if (student == null) {
+                    unknown++;
+                    continue;
+                }
+                // The raw scores, so that values outside 0-100 are counted as rejected by the batcher.
+                int[] scores = reader.lastScores();
+                submitted += scores.length;
+                results.add(batcher.addScores(student, scores));
+            }
+        }
+        int accepted = 0;
+        for (CompletableFuture<Integer> result : results) {
+            accepted += result.get();
+        }
+        StringBuilder body = new StringBuilder()
+                .append("{\"records\":").append(records)
+                .append(",\"accepted\":").append(accepted)
+                .append(",\"rejected\":").append(submitted - accepted)
+                .append(",\"unknownStudents\":").append(unknown)
+                .append('}');
+        send(exchange, 200, body);
+    }
+
+    private void getStats(HttpExchange exchange) throws IOException {
+        StringBuilder body = new StringBuilder()
+                .append("{\"students\":").append(statistics.getStudentCount())
+                .append(",\"graded\":").append(statistics.getGradedCount())
+                .append(",\"mean\":").append(RosterJson.formatAverage(statistics.getMean()))
+                .append(",\"median\":").append(RosterJson.formatAverage(statistics.getMedian()))
+                .append(",\"p90\":").append(RosterJson.formatAverage(statistics.getPercentile(90)))
+                .append(",\"letters\":{");
+        boolean first = true;
+        for (Map.Entry<String, Integer> letter : statistics.getLetterCounts().entrySet()) {
+            if (!first) body.append(',');
+            first = false;
+            RosterJson.appendString(letter.getKey(), body);
+            body.append(':').append(letter.getValue());
+        }
+        body.append("}}");
+        send(exchange, 200, body);
+    }
+
+    private static StringBuilder error(String message) throws IOException {
+        StringBuilder body = new StringBuilder("{\"error\":");
+        RosterJson.appendString(message == null ? "" : message, body);
+        return body.append('}');
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        ERRORS.increment();
+        // Nothing more can be sent if the failure came after the response was started.
+        if (exchange.getResponseCode() != -1) return;
+        try {
+            send(exchange, status, error(message));
+        } catch (IOException e) {
+            // The client has gone away.
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, CharSequence body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) return parameters;
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,296 @@
+// RosterJournal.java
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Append-only write-ahead log of roster mutations.
+// Each mutation is encoded as a small binary record and buffered in memory; a background thread
+// writes and fsyncs the buffered records as one group every GROUP_COMMIT_MS. On startup the
+// records are replayed over the last roster snapshot. Once the log grows past its compaction
+// threshold, the compaction callback folds it into a fresh snapshot and the log is reset.
+public final class RosterJournal implements Closeable {
+
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+    private static final long GROUP_COMMIT_MS = 200;
+    private static final int MAX_NAME_BYTES = 65535;
+
+    private static final LatencyHistogram FLUSH_TIME = Metrics.histogram("journal.flush");
+    private static final LongAdder FLUSHED_BYTES = Metrics.counter("journal.bytes");
+
+    // Record types. Every record starts with one of these bytes followed by the student name.
+    private static final byte ADD_STUDENT = 'A';
+    private static final byte REMOVE_STUDENT = 'R';
+    private static final byte RENAME_STUDENT = 'N';
+    private static final byte ADD_SCORE = 'S';
+    private static final byte SET_SCORES = 'U';
+
+    // Receives the records of a journal during replay, in the order they were written.
+    public interface Replay {
+        void studentAdded(String name);
+        void studentRemoved(String name);
+        void studentRenamed(String oldName, String newName);
+        void scoreAdded(String name, int score);
+        void scoresSet(String name, int[] scores);
+    }
+
+    private final FileChannel channel;
+    private final long compactionThreshold;
+    private final ScheduledExecutorService groupCommitter;
+    private volatile Runnable compactionCallback;
+
+    // Guarded by this: records appended since the last group commit, and the record being encoded.
+    private final ByteArrayOutputStream pendingBytes = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+    private final DataOutputStream record = new DataOutputStream(recordBytes);
+
+    // Guarded by writeLock: the file is only ever written by one flush or reset at a time.
+    private final Object writeLock = new Object();
+    private volatile long size;
+
+    // Opens the journal for appending, cutting off anything past validLength (a torn record from a crash).
+    public RosterJournal(Path path, long validLength, long compactionThreshold) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.channel.truncate(validLength);
+        this.channel.position(validLength);
+        this.size = validLength;
+        this.compactionThreshold = compactionThreshold;
+        this.groupCommitter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "roster-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        groupCommitter.scheduleWithFixedDelay(this::groupCommit, GROUP_COMMIT_MS, GROUP_COMMIT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Replays every complete record in the journal and returns the length of the valid prefix.
+    // A missing journal replays nothing; a truncated or unreadable tail ends the replay.
+    public static long replay(Path path, Replay replay) throws IOException {
+        if (!Files.exists(path)) return 0;
+
+        long validLength = 0;
+        try (InputStream file = Files.newInputStream(path);
+             CountingInputStream counter = new CountingInputStream(new BufferedInputStream(file));
+             DataInputStream in = new DataInputStream(counter)) {
+            while (true) {
+                int type = in.read();
+                if (type == -1) break;
+                String name = in.readUTF();
+                switch (type) {
+                    case ADD_STUDENT -> replay.studentAdded(name);
+                    case REMOVE_STUDENT -> replay.studentRemoved(name);
+                    case RENAME_STUDENT -> replay.studentRenamed(name, in.readUTF());
+                    case ADD_SCORE -> replay.scoreAdded(name, in.readUnsignedByte());
+                    case SET_SCORES -> {
+                        int[] scores = new int[in.readInt()];
+                        for (int i = 0; i < scores.length; i++) {
+                            scores[i] = in.readUnsignedByte();
+                        }
+                        replay.scoresSet(name, scores);
+                    }
+                    default -> throw new IOException("Unknown journal record type " + type);
+                }
+                validLength = counter.count;
+            }
+        } catch (EOFException e) {
+            Log.warn("Ignoring incomplete journal record at byte " + validLength);
+        } catch (IOException e) {
+            Log.warn("Stopping journal replay at byte " + validLength + ": " + e.getMessage());
+        }
+        return validLength;
+    }
+
+    // Called on the journal thread after a group commit leaves the journal above its threshold.
+    public void setCompactionCallback(Runnable callback) {
+        this.compactionCallback = callback;
+    }
+
+    public void recordStudentAdded(String name) {
+        append(out -> {
+            out.writeByte(ADD_STUDENT);
+            out.writeUTF(name);
+        });
+    }
+
+    public void recordStudentRemoved(String name) {
+        append(out -> {
+            out.writeByte(REMOVE_STUDENT);
+            out.writeUTF(name);
+        });
+    }
+
+    public void recordStudentRenamed(String oldName, String newName) {
+        append(out -> {
+            out.writeByte(RENAME_STUDENT);
+            out.writeUTF(oldName);
+            out.writeUTF(newName);
+        });
+    }
+
+    public void recordScoreAdded(String name, int score) {
+        append(out -> {
+            out.writeByte(ADD_SCORE);
+            out.writeUTF(name);
+            out.writeByte(score);
+        });
+    }
+
+    public void recordScoresSet(Student student) {
+        append(out -> {
+            out.writeByte(SET_SCORES);
+            out.writeUTF(student.getName());
+            out.writeInt(student.getScoreCount());
+            for (int i = 0; i < student.getScoreCount(); i++) {
+                out.writeByte(student.getScore(i));
+            }
+        });
+    }
+
+    // True if the name fits in a record: records hold names as modified UTF-8 of at most 65535 bytes.
+    public static boolean fitsRecord(String name) {
+        if (name.length() * 3L <= MAX_NAME_BYTES) return true;
+        long bytes = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            bytes += c >= 0x0001 && c < 0x0080 ? 1 : c < 0x0800 ? 2 : 3;
+        }
+        return bytes <= MAX_NAME_BYTES;
+    }
+
+    private interface RecordEncoder {
+        void encode(DataOutputStream out) throws IOException;
+    }
+
+    // Encodes one record on its own and only then appends it to the pending group, so a record that cannot
+    // be encoded (a name too long for it) never leaves a torn record in front of later ones.
+    private synchronized void append(RecordEncoder encoder) {
+        recordBytes.reset();
+        try {
+            encoder.encode(record);
+        } catch (UTFDataFormatException e) {
+            throw new IllegalArgumentException("Name too long for a journal record: " + e.getMessage());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream never throws
+        }
+        pendingBytes.write(recordBytes.toByteArray(), 0, recordBytes.size());
+    }
+
+    // Writes and fsyncs every buffered record as one group. The records stay buffered until they are on disk:
+    // if the write or the fsync fails, whatever part of the group reached the file is cut off again, so no
+    // torn record ends up in front of later ones, and the next flush retries the whole group.
+    public void flush() throws IOException {
+        synchronized (writeLock) {
+            byte[] batch;
+            synchronized (this) {
+                if (pendingBytes.size() == 0) return;
+                batch = pendingBytes.toByteArray();
+            }
+            long start = System.nanoTime();
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                try {
+                    channel.position(size);
+                    channel.truncate(size);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+                throw e;
+            }
+            size += batch.length;
+            synchronized (this) {
+                // Keep only the records appended while the group was being written.
+                byte[] all = pendingBytes.toByteArray();
+                pendingBytes.reset();
+                pendingBytes.write(all, batch.length, all.length - batch.length);
+            }
+            FLUSH_TIME.recordSince(start);
+            FLUSHED_BYTES.add(batch.length);
+        }
+    }
+
+    // Discards the journal after its records have been folded into a snapshot.
+    public void reset() throws IOException {
+        synchronized (writeLock) {
+            synchronized (this) {
+                pendingBytes.reset();
+            }
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            size = 0;
+        }
+    }
+
+    // Size of the journal on disk, not counting records still waiting for the next group commit.
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        groupCommitter.shutdown();
+        try {
+            groupCommitter.awaitTermination(GROUP_COMMIT_MS * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        channel.close();
+    }
+
+    private void groupCommit() {
+        try {
+            flush();
+        } catch (IOException e) {
+            Log.error("Error writing roster journal: " + e.getMessage());
+            return;
+        }
+        Runnable callback = compactionCallback;
+        if (callback != null && size >= compactionThreshold) {
+            callback.run();
+        }
+    }
+
+    // Tracks how many bytes the replay has consumed, so a torn tail can be cut off precisely.
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
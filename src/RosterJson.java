@@ -0,0 +1,59 @@
+// RosterJson.java
+import java.io.IOException;
+import java.util.Locale;
+
+// Writes students and values as JSON for the batch export and the HTTP API.
+// Output goes to any Appendable, so the CLI streams straight into its Writer and the server builds each
+// response in a StringBuilder. JsonlRosterReader reads the student objects back.
+public final class RosterJson {
+
+    private RosterJson() {
+    }
+
+    // Writes {"name":...,"scores":[...],"average":...,"letter":...}.
+    // The student is copied first, so the output is consistent even while other threads edit its scores.
+    public static void appendStudent(Student live, Appendable out) throws IOException {
+        Student student = live.copy();
+        out.append("{\"name\":");
+        appendString(student.getName(), out);
+        out.append(",\"scores\":[");
+        int count = student.getScoreCount();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) out.append(',');
+            out.append(Integer.toString(student.getScore(i)));
+        }
+        Grade grade = student.getGrade();
+        out.append("],\"average\":");
+        out.append(formatAverage(grade.getAverage()));
+        out.append(",\"letter\":");
+        appendString(count > 0 ? grade.getLetter() : "N/A", out);
+        out.append('}');
+    }
+
+    public static void appendString(String value, Appendable out) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // Averages are written with two decimals, like the CSV report.
+    public static String formatAverage(double average) {
+        return String.format(Locale.ROOT, "%.2f", average);
+    }
+}
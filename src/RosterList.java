@@ -0,0 +1,205 @@
+// RosterList.java
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// The roster's students in order, removable in O(log n) instead of after a linear search.
+// Each student remembers its slot in the array, and a removal just empties that slot. A Fenwick tree
+// counting the students left in each slot turns a slot into its index, and an index back into a slot,
+// in O(log n). Once half of the slots are empty they are compacted away, which keeps iteration and
+// memory proportional to the students actually listed. A student can be in one RosterList at a time.
+// Not thread-safe; RosterService only touches it under its roster lock.
+public final class RosterList extends AbstractList<Student> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private Student[] slots;
+    // Fenwick tree over the slots, 1-based: tree[i] counts the students in a power-of-two range ending at i - 1.
+    private int[] tree;
+    // Slots handed out so far, including emptied ones.
+    private int used;
+    private int size;
+
+    public RosterList(int capacity) {
+        this.slots = new Student[Math.max(MIN_CAPACITY, capacity)];
+        this.tree = new int[slots.length + 1];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Student get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return slots[slotOf(index)];
+    }
+
+    @Override
+    public boolean add(Student student) {
+        if (used == slots.length) {
+            // Compacting frees enough slots when many are empty; otherwise the arrays grow.
+            rebuild(used - size > used / 2 ? slots.length : slots.length * 2);
+        }
+        slots[used] = student;
+        student.rosterSlot = used;
+        for (int i = used + 1; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+        used++;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Student student)) return -1;
+        int slot = student.rosterSlot;
+        if (slot < 0 || slot >= used || slots[slot] != student) return -1;
+        int index = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            index += tree[i];
+        }
+        return index;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    // Removes the student and returns the index it had, or -1 if it is not in this list.
+    public int removeStudent(Student student) {
+        int index = indexOf(student);
+        if (index < 0) return -1;
+        int slot = student.rosterSlot;
+        slots[slot] = null;
+        student.rosterSlot = -1;
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i]--;
+        }
+        size--;
+        modCount++;
+        if (used >= MIN_CAPACITY && size < used / 2) {
+            // Shrinks as well, so that a roster that lost most of its students does not rebuild a large
+            // array every few removals.
+            rebuild(size * 2);
+        }
+        return index;
+    }
+
+    // Copies the students from index from (inclusive) to to (exclusive), walking the slots instead of
+    // looking up every index.
+    public List<Student> copyRange(int from, int to) {
+        Student[] range = new Student[to - from];
+        if (range.length == 0) return List.of();
+        int slot = slotOf(from);
+        for (int i = 0; i < range.length; slot++) {
+            if (slots[slot] != null) {
+                range[i++] = slots[slot];
+            }
+        }
+        return List.of(range);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toArray(new Student[0]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        T[] array = a.length >= size ? a : Arrays.copyOf(a, size);
+        int i = 0;
+        for (int slot = 0; slot < used; slot++) {
+            if (slots[slot] != null) {
+                array[i++] = (T) slots[slot];
+            }
+        }
+        if (array.length > size) {
+            array[size] = null;
+        }
+        return array;
+    }
+
+    @Override
+    public Iterator<Student> iterator() {
+        return new Iterator<>() {
+            private int slot = nextSlot(0);
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return slot < used;
+            }
+
+            @Override
+            public Student next() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (slot >= used) throw new NoSuchElementException();
+                Student student = slots[slot];
+                slot = nextSlot(slot + 1);
+                return student;
+            }
+        };
+    }
+
+    private int nextSlot(int slot) {
+        while (slot < used && slots[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    // The slot holding the student at the index, found by descending the Fenwick tree.
+    private int slotOf(int index) {
+        int slot = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                slot = next;
+                remaining -= tree[next];
+            }
+        }
+        return slot;
+    }
+
+    // Moves the students to the front of new arrays of the given capacity and rebuilds the tree in linear time.
+    private void rebuild(int capacity) {
+        Student[] compacted = new Student[Math.max(MIN_CAPACITY, capacity)];
+        int[] counts = new int[compacted.length + 1];
+        int next = 0;
+        for (int slot = 0; slot < used; slot++) {
+            Student student = slots[slot];
+            if (student != null) {
+                compacted[next] = student;
+                student.rosterSlot = next;
+                next++;
+                counts[next] = 1;
+            }
+        }
+        for (int i = 1; i < counts.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < counts.length) {
+                counts[parent] += counts[i];
+            }
+        }
+        this.slots = compacted;
+        this.tree = counts;
+        this.used = next;
+    }
+}
@@ -0,0 +1,10 @@
+// RosterListener.java
+import java.util.List;
+
+// Receives fine-grained roster changes from RosterService.
+public interface RosterListener {
+    // Called on the mutating thread right after the changes were applied, in the order they were applied.
+    // Structural changes are delivered while the roster is still locked, so implementations must be quick
+    // and hand any real work (such as UI updates) off to another thread.
+    void rosterChanged(List<RosterChange> changes);
+}
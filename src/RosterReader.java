@@ -0,0 +1,13 @@
+// RosterReader.java
+import java.io.Closeable;
+import java.io.IOException;
+
+// A source of students read one at a time, such as a roster CSV or a JSON Lines score file.
+public interface RosterReader extends Closeable {
+    // Reads the next student, or returns null once the input is exhausted.
+    Student readStudent() throws IOException;
+
+    // The scores of the record last read, exactly as they were written, including any outside 0-100 that the
+    // returned Student leaves out.
+    int[] lastScores();
+}
@@ -0,0 +1,263 @@
+// RosterRowList.java
+import javafx.collections.ObservableListBase;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Table items for the roster that only materialize rows for the students actually on screen.
+// The list mirrors the roster as plain Student references; a StudentRow (with its cached properties) is
+// created when the table asks for an index and kept in a bounded least-recently-used cache, so scrolling
+// a roster of millions of students costs a few hundred rows of heap. Only touched on the FX thread.
+// A sorted list shows its own copy of the references, kept in order by a comparator over students, so
+// sorting never builds a row per student either.
+public class RosterRowList extends ObservableListBase<StudentRow> {
+
+    // Comfortably more than any screen shows, so rows are not rebuilt while scrolling back and forth.
+    private static final int ROW_CACHE_SIZE = 1024;
+    // Updates in one batch of changes up to which a sorted list moves each student on its own; more
+    // than that and re-sorting the whole list is cheaper.
+    private static final int MOVE_LIMIT = 8;
+
+    // The roster order, which changes are applied in by index.
+    private final List<Student> students = new ArrayList<>();
+    // What the table shows: the roster order itself, or a sorted copy of it.
+    private List<Student> shown = students;
+    private Comparator<Student> order;
+    private final Map<Student, StudentRow> rows = new LinkedHashMap<>(ROW_CACHE_SIZE * 4 / 3, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Student, StudentRow> eldest) {
+            return size() > ROW_CACHE_SIZE;
+        }
+    };
+
+    @Override
+    public StudentRow get(int index) {
+        Student student = shown.get(index);
+        StudentRow row = rows.get(student);
+        if (row == null) {
+            row = new StudentRow(student);
+            rows.put(student, row);
+        }
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return shown.size();
+    }
+
+    // Shows the students in this order, or in the roster order for null, reported as a permutation so
+    // that the table keeps its selection.
+    public void sortBy(Comparator<Student> order) {
+        this.order = order;
+        if (order == null) {
+            if (shown == students) return;
+            permuteTo(students);
+        } else {
+            List<Student> sorted = new ArrayList<>(shown);
+            sorted.sort(order);
+            permuteTo(sorted);
+        }
+    }
+
+    // Replaces the contents with the roster as returned by RosterService.addRosterListener().
+    public void reset(List<Student> roster) {
+        List<Student> previous = new ArrayList<>(shown);
+        // Rows for the removed students are only built if a list change listener actually looks at them.
+        List<StudentRow> removed = new AbstractList<>() {
+            @Override
+            public StudentRow get(int index) {
+                return new StudentRow(previous.get(index));
+            }
+
+            @Override
+            public int size() {
+                return previous.size();
+            }
+        };
+        students.clear();
+        rows.clear();
+        students.addAll(roster);
+        if (order == null) {
+            shown = students;
+        } else {
+            shown = new ArrayList<>(students);
+            shown.sort(order);
+        }
+        beginChange();
+        nextReplace(0, shown.size(), removed);
+        endChange();
+    }
+
+    // Appends students at the end, e.g. as a roster streams in from disk before the service is ready.
+    public void append(List<Student> more) {
+        if (more.isEmpty()) return;
+        int from = shown.size();
+        students.addAll(more);
+        if (shown != students) {
+            shown.addAll(more);
+        }
+        beginChange();
+        nextAdd(from, shown.size());
+        endChange();
+        if (order != null) {
+            sortBy(order);
+        }
+    }
+
+    // Applies roster changes as targeted edits: inserts and removals at their index, and a refresh of
+    // just the affected row for updates. Rows that are not cached have nothing to refresh; they are
+    // built from the current student the next time they scroll into view.
+    public void apply(List<RosterChange> changes) {
+        if (order != null) {
+            applySorted(changes);
+            return;
+        }
+        beginChange();
+        try {
+            for (RosterChange change : changes) {
+                Student student = change.getStudent();
+                switch (change.getType()) {
+                    case ADDED -> {
+                        students.add(change.getIndex(), student);
+                        nextAdd(change.getIndex(), change.getIndex() + 1);
+                    }
+                    case REMOVED -> {
+                        StudentRow row = rows.remove(student);
+                        students.remove(change.getIndex());
+                        nextRemove(change.getIndex(), row != null ? row : new StudentRow(student));
+                    }
+                    case UPDATED -> {
+                        StudentRow row = rows.get(student);
+                        if (row != null) {
+                            row.refresh();
+                        }
+                    }
+                }
+            }
+        } finally {
+            endChange();
+        }
+    }
+
+    // The roster order is still kept by index, while the shown copy drops removed students, inserts
+    // added ones where they sort, and moves updated ones whose sort position changed.
+    private void applySorted(List<RosterChange> changes) {
+        Set<Student> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Student> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Student> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (RosterChange change : changes) {
+            Student student = change.getStudent();
+            switch (change.getType()) {
+                case ADDED -> {
+                    students.add(change.getIndex(), student);
+                    // A student removed earlier in the batch is still shown, but may sort elsewhere now.
+                    if (removed.remove(student)) {
+                        updated.add(student);
+                    } else {
+                        added.add(student);
+                    }
+                }
+                case REMOVED -> {
+                    students.remove(change.getIndex());
+                    if (!added.remove(student)) {
+                        removed.add(student);
+                    }
+                    updated.remove(student);
+                }
+                case UPDATED -> {
+                    StudentRow row = rows.get(student);
+                    if (row != null) {
+                        row.refresh();
+                    }
+                    if (!added.contains(student)) {
+                        updated.add(student);
+                    }
+                }
+            }
+        }
+
+        beginChange();
+        try {
+            if (!removed.isEmpty()) {
+                int kept = 0;
+                for (int i = 0; i < shown.size(); i++) {
+                    Student student = shown.get(i);
+                    if (removed.contains(student)) {
+                        StudentRow row = rows.remove(student);
+                        nextRemove(kept, row != null ? row : new StudentRow(student));
+                    } else {
+                        shown.set(kept++, student);
+                    }
+                }
+                shown.subList(kept, shown.size()).clear();
+            }
+            for (Student student : added) {
+                int index = insertionPoint(student);
+                shown.add(index, student);
+                nextAdd(index, index + 1);
+            }
+        } finally {
+            endChange();
+        }
+
+        if (updated.size() > MOVE_LIMIT) {
+            sortBy(order);
+        } else {
+            for (Student student : updated) {
+                move(student);
+            }
+        }
+    }
+
+    // Moves one student whose sort value changed to where it now sorts.
+    private void move(Student student) {
+        int from = shown.indexOf(student);
+        if (from < 0) return;
+        shown.remove(from);
+        int to = insertionPoint(student);
+        shown.add(to, student);
+        if (to == from) return;
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+        int[] permutation = new int[high - low + 1];
+        for (int i = low; i <= high; i++) {
+            // The rows between the two positions shift by one towards the place the student left.
+            permutation[i - low] = i == from ? to : from < to ? i - 1 : i + 1;
+        }
+        beginChange();
+        nextPermutation(low, high + 1, permutation);
+        endChange();
+    }
+
+    private int insertionPoint(Student student) {
+        int index = Collections.binarySearch(shown, student, order);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Replaces the shown students with the same students in a new order.
+    private void permuteTo(List<Student> target) {
+        Map<Student, Integer> targetIndex = new IdentityHashMap<>(target.size());
+        for (int i = 0; i < target.size(); i++) {
+            targetIndex.put(target.get(i), i);
+        }
+        int[] permutation = new int[shown.size()];
+        boolean moved = false;
+        for (int i = 0; i < permutation.length; i++) {
+            permutation[i] = targetIndex.get(shown.get(i));
+            moved |= permutation[i] != i;
+        }
+        shown = target;
+        if (!moved) return;
+        beginChange();
+        nextPermutation(0, permutation.length, permutation);
+        endChange();
+    }
+}
@@ -1,74 +1,853 @@
 // RosterService.java
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Thread-safe roster shared by the GUI, the autosave and journal threads and any other caller.
+// Locking model:
+//  - rosterLock's write lock guards the structure of the roster (adding, removing and renaming students).
+//  - Score edits only take the read lock, so edits to different students run in parallel; each one is
+//    serialized per student by that Student's own monitor, which also keeps its journal record in order.
+//  - Lookups go through a ConcurrentHashMap and never lock; savers work on snapshot() copies.
+public final class RosterService {
+
+    public static final int DEFAULT_MAX_STUDENTS = 50;
+    // Scores edited since a binary roster was loaded are copied onto the heap. Once they pass this many
+    // bytes, the next save writes them back and re-maps them (-Dgradetracker.heapScoreBudget=bytes).
+    private static final long HEAP_SCORE_BUDGET = Long.getLong("gradetracker.heapScoreBudget", 64L * 1024 * 1024);
+
+    // How many invalid operations of a rejected batch are described in the exception message.
+    private static final int MAX_REPORTED_PROBLEMS = 10;
+
+    private static final LatencyHistogram LOOKUP_TIME = Metrics.histogram("roster.findStudent");
+    private static final LongAdder MUTATIONS = Metrics.counter("roster.mutations");
 
-public class RosterService {
+    // Students in roster order; a removal finds its student in O(log n) instead of searching the list.
+    private final RosterList roster;
+    // Case-insensitive index over the roster, keyed by the trimmed, lower-cased student name.
+    private final Map<String, Student> studentsByName;
+    private final ReentrantReadWriteLock rosterLock = new ReentrantReadWriteLock();
+    private final FileRosterStorage storage;
+    private final int maxStudents;
+    // Prefix of this roster's gauges, e.g. "roster.roster.csv.students".
+    private final String metricsPrefix;
 
-    private final List<Student> roster;
-    private final FileRosterStorage storage = new FileRosterStorage();
-    private static final int MAX_STUDENTS = 50;
+    // Bumped by every mutation; the roster is dirty while it differs from the count at the last save.
+    private final AtomicLong modificationCount = new AtomicLong();
+    // Bytes of scores held on the heap rather than in a mapped binary roster; see HEAP_SCORE_BUDGET.
+    private final AtomicLong heapScoreBytes = new AtomicLong();
+    private volatile long savedModificationCount;
+    private volatile Runnable dirtyListener;
+    private final List<RosterListener> rosterListeners = new CopyOnWriteArrayList<>();
+    private final Object saveLock = new Object();
+    // Applied to every student; new students pick it up when they are added.
+    private volatile GradingPolicy gradingPolicy = GradingPolicy.STANDARD;
+
+    // Write-ahead journal of mutations, or null when every save rewrites the whole roster file.
+    // Checkpoints hold the write lock, so no mutation can be journaled between a snapshot and the journal reset.
+    private volatile RosterJournal journal;
 
     public RosterService() {
-        // Load the roster from storage upon initialization.
-        this.roster = storage.loadRoster();
+        this(DEFAULT_MAX_STUDENTS);
+    }
+
+    public RosterService(int maxStudents) {
+        this(maxStudents, false);
+    }
+
+    // In journal mode each mutation is appended to the journal instead of rewriting the roster file,
+    // and the journal is folded into a new snapshot once it passes its compaction threshold.
+    public RosterService(int maxStudents, boolean journaled) {
+        this(new FileRosterStorage(), maxStudents, journaled);
+    }
+
+    // Uses the given storage instead of the default roster.csv in the working directory.
+    public RosterService(FileRosterStorage storage, int maxStudents, boolean journaled) {
+        // Load the roster from storage upon initialization. Demo data only fills a roster that was read as
+        // empty; after a failed load nothing is marked dirty, so a save cannot overwrite the unreadable file.
+        this(storage, maxStudents, journaled, storage.loadRoster(), !storage.loadFailed());
+    }
+
+    // Loads the roster on the executor, seeding demo data into an empty roster like the constructor above.
+    // A file that cannot be read fails the future instead of loading as an empty roster. Each student is
+    // passed to onStudentRead (on the executor's thread) as it comes off the disk, before duplicates are
+    // dropped and the journal is replayed, so a caller can show the roster filling in while it loads.
+    public static CompletableFuture<RosterService> loadAsync(FileRosterStorage storage, int maxStudents, boolean journaled,
+                                                             Consumer<Student> onStudentRead, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return new RosterService(storage, maxStudents, journaled, storage.readRoster(onStudentRead), true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    // Loads the roster for batch jobs: a file that cannot be read is reported instead of being treated
+    // as an empty roster (which the next save would overwrite), and no demo data is seeded.
+    public static RosterService load(FileRosterStorage storage, int maxStudents, boolean journaled) throws IOException {
+        List<Student> loaded = storage.readRoster();
+        try {
+            return new RosterService(storage, maxStudents, journaled, loaded, false);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private RosterService(FileRosterStorage storage, int maxStudents, boolean journaled,
+                          List<Student> loaded, boolean seedDemoData) {
+        if (maxStudents <= 0) {
+            throw new IllegalArgumentException("Roster capacity must be positive: " + maxStudents);
+        }
+        this.storage = storage;
+        this.maxStudents = maxStudents;
+        this.metricsPrefix = "roster." + storage.getFileName() + ".";
 
-        if (roster.isEmpty()) {
+        this.roster = new RosterList(loaded.size());
+        this.studentsByName = new ConcurrentHashMap<>(Math.max(16, (int) (loaded.size() / 0.75f) + 1));
+        for (Student student : loaded) {
+            // The first occurrence of a name wins; later duplicates in the file are dropped.
+            if (studentsByName.putIfAbsent(key(student.getName()), student) == null) {
+                roster.add(student);
+                heapScoreBytes.addAndGet(student.heapScoreBytes());
+            }
+        }
+        if (roster.size() < loaded.size()) {
+            Log.info("Skipped " + (loaded.size() - roster.size()) + " duplicate students in file.");
+        }
+        if (journaled) {
+            openJournal();
+        }
+
+        if (roster.isEmpty() && seedDemoData) {
             addStudent("Alice Smith");
             addStudent("Bob Johnson");
             addStudent("Charlie Brown");
 
             Student alice = findStudent("Alice Smith");
             if (alice != null) {
-                alice.addScore(95);
-                alice.addScore(88);
+                addScore(alice, 95);
+                addScore(alice, 88);
             }
             Student bob = findStudent("Bob Johnson");
             if (bob != null) {
-                bob.addScore(72);
+                addScore(bob, 72);
             }
-            System.out.println("LOG: Loaded fresh demo data.");
+            Log.info("Loaded fresh demo data.");
         } else {
-            System.out.println("LOG: Loaded " + roster.size() + " students from file.");
+            Log.info("Loaded " + roster.size() + " students from file.");
         }
+
+        Metrics.gauge(metricsPrefix + "students", this::size);
+        Metrics.gauge(metricsPrefix + "pendingChanges", () -> modificationCount.get() - savedModificationCount);
+        Metrics.gauge(metricsPrefix + "heapScoreBytes", heapScoreBytes::get);
     }
 
     public boolean addStudent(String name) {
-        if (roster.size() >= MAX_STUDENTS) {
-            System.err.println("Roster is full.");
+        String trimmed = name.trim();
+        if (!isValidName(trimmed)) {
             return false;
         }
-        if (findStudent(name) == null && !name.trim().isEmpty()) {
-            roster.add(new Student(name.trim()));
-            return true;
+        rosterLock.writeLock().lock();
+        try {
+            if (roster.size() >= maxStudents) {
+                Log.warn("Roster is full.");
+                return false;
+            }
+            Student student = new Student(trimmed);
+            student.setGradingPolicy(gradingPolicy);
+            if (studentsByName.putIfAbsent(key(trimmed), student) == null) {
+                roster.add(student);
+                if (journal != null) journal.recordStudentAdded(trimmed);
+                markDirty();
+                fireChange(RosterChange.added(roster.size() - 1, student));
+                return true;
+            }
+            return false;
+        } finally {
+            rosterLock.writeLock().unlock();
         }
-        return false;
     }
 
     // Method to remove a student object from the roster.
     public boolean removeStudent(Student student) {
-        return roster.remove(student);
+        rosterLock.writeLock().lock();
+        try {
+            int index = roster.removeStudent(student);
+            if (index < 0) {
+                return false;
+            }
+            studentsByName.remove(key(student.getName()), student);
+            heapScoreBytes.addAndGet(-student.heapScoreBytes());
+            if (journal != null) journal.recordStudentRemoved(student.getName());
+            markDirty();
+            fireChange(RosterChange.removed(index, student));
+            return true;
+        } finally {
+            rosterLock.writeLock().unlock();
+        }
     }
 
-    // Method to update a student's scores after editing.
-    public void updateStudentScores(Student student, List<Integer> newScores) {
-        student.setScores(newScores);
+    // Renames a student in place, keeping its scores and position in the roster.
+    // Fails if the new name is blank, too long or already belongs to another student.
+    public boolean renameStudent(Student student, String newName) {
+        String trimmed = newName.trim();
+        if (!isValidName(trimmed)) {
+            return false;
+        }
+        rosterLock.writeLock().lock();
+        try {
+            String oldName = student.getName();
+            if (studentsByName.get(key(oldName)) != student) {
+                return false;
+            }
+            String newKey = key(trimmed);
+            Student existing = studentsByName.get(newKey);
+            if (existing != null && existing != student) {
+                return false;
+            }
+            studentsByName.remove(key(oldName));
+            student.rename(trimmed);
+            studentsByName.put(newKey, student);
+            if (journal != null) journal.recordStudentRenamed(oldName, trimmed);
+            markDirty();
+            fireChange(RosterChange.updated(student));
+            return true;
+        } finally {
+            rosterLock.writeLock().unlock();
+        }
     }
 
-    // Returns an unmodifiable view of the roster list.
+    // Adds a single score to a student. Returns false if the score is outside 0-100 or the student is no
+    // longer in the roster.
+    public boolean addScore(Student student, int score) {
+        if (score < 0 || score > 100) {
+            return false;
+        }
+        rosterLock.readLock().lock();
+        try {
+            if (!isListed(student)) {
+                return false;
+            }
+            synchronized (student) {
+                int heapBytes = student.heapScoreBytes();
+                student.addScore(score);
+                heapScoreBytes.addAndGet(student.heapScoreBytes() - heapBytes);
+                if (journal != null) journal.recordScoreAdded(student.getName(), score);
+            }
+            markDirty();
+            fireChange(RosterChange.updated(student));
+            return true;
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    // Method to update a student's scores after editing. Returns false if the student is no longer in the roster.
+    public boolean updateStudentScores(Student student, List<Integer> newScores) {
+        rosterLock.readLock().lock();
+        try {
+            if (!isListed(student)) {
+                return false;
+            }
+            synchronized (student) {
+                int heapBytes = student.heapScoreBytes();
+                student.setScores(newScores);
+                heapScoreBytes.addAndGet(student.heapScoreBytes() - heapBytes);
+                if (journal != null) journal.recordScoresSet(student);
+            }
+            markDirty();
+            fireChange(RosterChange.updated(student));
+            return true;
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    // Replaces a student's scores with the given ones; values outside 0-100 are skipped.
+    // Returns false if the student is no longer in the roster.
+    public boolean updateStudentScores(Student student, int[] newScores) {
+        rosterLock.readLock().lock();
+        try {
+            if (!isListed(student)) {
+                return false;
+            }
+            synchronized (student) {
+                int heapBytes = student.heapScoreBytes();
+                student.setScores(newScores, newScores.length);
+                heapScoreBytes.addAndGet(student.heapScoreBytes() - heapBytes);
+                if (journal != null) journal.recordScoresSet(student);
+            }
+            markDirty();
+            fireChange(RosterChange.updated(student));
+            return true;
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    // Applies every operation of the batch, or none of them. The whole batch is validated in one pass before
+    // anything changes, and all of its problems (blank, too long or duplicate names, unknown students, scores
+    // outside 0-100, exceeding the capacity) are reported together in the IllegalArgumentException. Listeners get
+    // the batch as a single list of changes, and the roster is marked dirty (so saved or journaled) once.
+    public void applyBatch(RosterBatch batch) {
+        if (batch.isEmpty()) return;
+        rosterLock.writeLock().lock();
+        try {
+            validate(batch);
+            List<RosterChange> changes = new ArrayList<>();
+            Set<Student> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<Student> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (RosterBatch.Operation operation : batch.operations()) {
+                String name = operation.name;
+                switch (operation.type) {
+                    case ADD_STUDENT -> {
+                        Student student = new Student(name);
+                        student.setGradingPolicy(gradingPolicy);
+                        studentsByName.put(key(name), student);
+                        roster.add(student);
+                        if (journal != null) journal.recordStudentAdded(name);
+                        changes.add(RosterChange.added(roster.size() - 1, student));
+                    }
+                    case REMOVE_STUDENT -> {
+                        Student student = studentsByName.remove(key(name));
+                        if (journal != null) journal.recordStudentRemoved(student.getName());
+                        updated.remove(student);
+                        removed.add(student);
+                    }
+                    case RENAME_STUDENT -> {
+                        Student student = studentsByName.remove(key(name));
+                        String oldName = student.getName();
+                        student.rename(operation.newName);
+                        studentsByName.put(key(operation.newName), student);
+                        if (journal != null) journal.recordStudentRenamed(oldName, operation.newName);
+                        updated.add(student);
+                    }
+                    case RESTORE_STUDENT -> {
+                        Student student = operation.student;
+                        int heapBytes = student.heapScoreBytes();
+                        synchronized (student) {
+                            student.rename(name);
+                            student.setScores(operation.scores, operation.scores.length);
+                            student.setGradingPolicy(gradingPolicy);
+                        }
+                        studentsByName.put(key(name), student);
+                        if (removed.remove(student)) {
+                            // Removed earlier in this batch, so it is still in the list and simply stays there.
+                            heapScoreBytes.addAndGet(student.heapScoreBytes() - heapBytes);
+                            updated.add(student);
+                        } else {
+                            roster.add(student);
+                            heapScoreBytes.addAndGet(student.heapScoreBytes());
+                            changes.add(RosterChange.added(roster.size() - 1, student));
+                        }
+                        if (journal != null) {
+                            journal.recordStudentAdded(name);
+                            journal.recordScoresSet(student);
+                        }
+                    }
+                    case ADD_SCORES, REPLACE_SCORES -> {
+                        Student student = operation.student != null ? operation.student : studentsByName.get(key(name));
+                        synchronized (student) {
+                            int heapBytes = student.heapScoreBytes();
+                            if (operation.type == RosterBatch.Type.REPLACE_SCORES) {
+                                student.setScores(operation.scores, operation.scores.length);
+                                if (journal != null) journal.recordScoresSet(student);
+                            } else {
+                                for (int score : operation.scores) {
+                                    student.addScore(score);
+                                    if (journal != null) journal.recordScoreAdded(student.getName(), score);
+                                }
+                            }
+                            heapScoreBytes.addAndGet(student.heapScoreBytes() - heapBytes);
+                        }
+                        updated.add(student);
+                    }
+                }
+            }
+            for (Student student : updated) {
+                changes.add(RosterChange.updated(student));
+            }
+            if (!removed.isEmpty()) {
+                // Removed front to back, so each change carries the index the student has once the removals
+                // before it are applied, and listeners can replay them in order.
+                List<Student> removals = new ArrayList<>(removed);
+                removals.sort(Comparator.comparingInt(roster::indexOf));
+                for (Student student : removals) {
+                    heapScoreBytes.addAndGet(-student.heapScoreBytes());
+                    changes.add(RosterChange.removed(roster.removeStudent(student), student));
+                }
+            }
+            markDirty();
+            if (!rosterListeners.isEmpty()) fireChanges(changes);
+        } finally {
+            rosterLock.writeLock().unlock();
+        }
+    }
+
+    // True if the student object is in the roster under its current name. Removals and renames take the write
+    // lock, so the answer holds for as long as the caller keeps either lock.
+    private boolean isListed(Student student) {
+        return studentsByName.get(key(student.getName())) == student;
+    }
+
+    // True if the student object is in the roster under its current name and not removed earlier in the batch.
+    private boolean isListed(Student student, Map<String, Boolean> changed) {
+        String key = key(student.getName());
+        return studentsByName.get(key) == student && changed.get(key) != Boolean.FALSE;
+    }
+
+    // Checks the batch against the roster as it will be when each operation runs. The capacity is checked
+    // after every addition, not just at the end, so that replaying the journal one record at a time never
+    // finds the roster full.
+    private void validate(RosterBatch batch) {
+        List<String> problems = new ArrayList<>();
+        int invalid = 0;
+        // Names added (true) or removed (false) by earlier operations of the batch.
+        Map<String, Boolean> changed = new HashMap<>();
+        int size = roster.size();
+        int number = 0;
+        for (RosterBatch.Operation operation : batch.operations()) {
+            number++;
+            String key = key(operation.name);
+            Boolean known = changed.get(key);
+            boolean exists = known != null ? known : studentsByName.containsKey(key);
+            String problem;
+            String newKey = operation.type == RosterBatch.Type.RENAME_STUDENT ? key(operation.newName) : null;
+            if (operation.name.isEmpty() || (newKey != null && newKey.isEmpty())) {
+                problem = "the name is blank";
+            } else if (!RosterJournal.fitsRecord(newKey != null ? operation.newName : operation.name)) {
+                problem = "the name is too long";
+            } else if (operation.type == RosterBatch.Type.ADD_STUDENT || operation.type == RosterBatch.Type.RESTORE_STUDENT) {
+                problem = exists ? "the student already exists"
+                        : size >= maxStudents ? "the roster is full (" + maxStudents + " students)"
+                        : operation.student != null && isListed(operation.student, changed) ? "the student is still in the roster"
+                        : null;
+            } else if (!exists) {
+                problem = "no such student";
+            } else if (operation.student != null && operation.type == RosterBatch.Type.ADD_SCORES
+                    && (studentsByName.get(key) != operation.student || changed.containsKey(key))) {
+                // Scores meant for one student object must not land on another that has taken its name since.
+                problem = "the student is no longer in the roster";
+            } else if (newKey != null && !newKey.equals(key)
+                    && (changed.containsKey(newKey) ? changed.get(newKey) : studentsByName.containsKey(newKey))) {
+                problem = "the new name already exists";
+            } else {
+                problem = null;
+                for (int score : operation.scores) {
+                    if (score < 0 || score > 100) {
+                        problem = "score " + score + " is outside 0-100";
+                        break;
+                    }
+                }
+            }
+
+            if (problem != null) {
+                if (invalid++ < MAX_REPORTED_PROBLEMS) {
+                    problems.add("#" + number + " " + operation + ": " + problem);
+                }
+            } else if (operation.type == RosterBatch.Type.ADD_STUDENT || operation.type == RosterBatch.Type.RESTORE_STUDENT) {
+                changed.put(key, true);
+                size++;
+            } else if (operation.type == RosterBatch.Type.REMOVE_STUDENT) {
+                changed.put(key, false);
+                size--;
+            } else if (newKey != null && !newKey.equals(key)) {
+                changed.put(key, false);
+                changed.put(newKey, true);
+            }
+        }
+        if (invalid > 0) {
+            String more = invalid > problems.size() ? "; and " + (invalid - problems.size()) + " more" : "";
+            throw new IllegalArgumentException("Rejected a batch of " + batch.size() + " roster changes, "
+                    + invalid + " of them invalid: " + String.join("; ", problems) + more);
+        }
+    }
+
+    // Returns an unmodifiable copy of the roster list as of this call.
+    // The students themselves are live; use snapshot() for data that must not change while it is read.
     public List<Student> getRoster() {
-        return Collections.unmodifiableList(roster);
+        rosterLock.readLock().lock();
+        try {
+            return List.copyOf(roster);
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    // Returns up to limit students starting at offset, copying only that slice of the roster list.
+    public List<Student> getPage(int offset, int limit) {
+        rosterLock.readLock().lock();
+        try {
+            int from = Math.min(Math.max(0, offset), roster.size());
+            int to = (int) Math.min(roster.size(), (long) from + Math.max(0, limit));
+            return roster.copyRange(from, to);
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    // Returns detached copies of every student, each one consistent, which savers can iterate
+    // without any locking while other threads keep editing the roster.
+    public List<Student> snapshot() {
+        Student[] students;
+        rosterLock.readLock().lock();
+        try {
+            students = roster.toArray(new Student[0]);
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+        return copyAll(students);
+    }
+
+    public GradingPolicy getGradingPolicy() {
+        return gradingPolicy;
+    }
+
+    // Switches every student to the policy and regrades the whole roster in one parallel pass, so the new
+    // grades are ready before listeners hear about them. Listeners receive one UPDATED change per student.
+    public void setGradingPolicy(GradingPolicy policy) {
+        rosterLock.readLock().lock();
+        try {
+            gradingPolicy = policy;
+            roster.parallelStream().forEach(student -> {
+                student.setGradingPolicy(policy);
+                student.getGrade();
+            });
+            if (rosterListeners.isEmpty()) return;
+            List<RosterChange> changes = new ArrayList<>(roster.size());
+            for (Student student : roster) {
+                changes.add(RosterChange.updated(student));
+            }
+            fireChanges(changes);
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        rosterLock.readLock().lock();
+        try {
+            return roster.size();
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    public int getMaxStudents() {
+        return maxStudents;
     }
 
     public Student findStudent(String name) {
-        for (Student s : roster) {
-            if (s.getName().equalsIgnoreCase(name.trim())) {
-                return s;
+        long start = System.nanoTime();
+        Student student = studentsByName.get(key(name));
+        LOOKUP_TIME.recordSince(start);
+        return student;
+    }
+
+    // Writes the roster unconditionally, e.g. for an explicit "Save Now". Returns false if the write failed.
+    public boolean saveData() {
+        if (journal != null) {
+            return checkpoint();
+        }
+        if (overHeapBudget()) {
+            return writeBack();
+        }
+        synchronized (saveLock) {
+            long version = modificationCount.get();
+            if (storage.saveRoster(snapshot())) {
+                savedModificationCount = version;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // Runs saveData() on the executor, so callers such as the FX thread never wait on the disk.
+    public CompletableFuture<Boolean> saveDataAsync(Executor executor) {
+        return CompletableFuture.supplyAsync(this::saveData, executor);
+    }
+
+    // Writes the roster only if it changed since the last successful save. Returns true if it was written.
+    // In journal mode this only forces a group commit, and returns true once it has made the changes durable.
+    public boolean saveIfDirty() {
+        if (journal != null) {
+            // Every change records itself in the journal before it is counted, so once a flush succeeds every
+            // change counted before it is durable, and the roster counts as saved up to that point.
+            synchronized (saveLock) {
+                long version = modificationCount.get();
+                if (version == savedModificationCount) {
+                    return false;
+                }
+                try {
+                    journal.flush();
+                } catch (IOException e) {
+                    Log.error("Error writing roster journal: " + e.getMessage());
+                    return false;
+                }
+                savedModificationCount = version;
+                return true;
             }
         }
-        return null;
+        if (overHeapBudget() && isDirty()) {
+            return writeBack();
+        }
+        synchronized (saveLock) {
+            long version = modificationCount.get();
+            if (version == savedModificationCount) {
+                return false;
+            }
+            if (storage.saveRoster(snapshot())) {
+                savedModificationCount = version;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // Flushes the journal and stops its background writer.
+    public void close() {
+        Metrics.removeGauge(metricsPrefix + "students");
+        Metrics.removeGauge(metricsPrefix + "pendingChanges");
+        Metrics.removeGauge(metricsPrefix + "heapScoreBytes");
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                Log.error("Error closing roster journal: " + e.getMessage());
+            }
+        }
+    }
+
+    public boolean isDirty() {
+        return modificationCount.get() != savedModificationCount;
+    }
+
+    // Registers a callback run after every mutation, used by AutosaveTask to schedule a write.
+    public void setDirtyListener(Runnable listener) {
+        this.dirtyListener = listener;
+    }
+
+    // Registers a listener for fine-grained roster changes and returns the roster as of registration.
+    // No structural change can happen in between, so applying every later change to the returned list
+    // keeps a copy of the roster exactly in sync.
+    public List<Student> addRosterListener(RosterListener listener) {
+        rosterLock.readLock().lock();
+        try {
+            rosterListeners.add(listener);
+            return List.copyOf(roster);
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    public void removeRosterListener(RosterListener listener) {
+        rosterListeners.remove(listener);
+    }
+
+    private void fireChange(RosterChange change) {
+        if (rosterListeners.isEmpty()) return;
+        fireChanges(List.of(change));
+    }
+
+    private void fireChanges(List<RosterChange> changes) {
+        for (RosterListener listener : rosterListeners) {
+            listener.rosterChanged(changes);
+        }
+    }
+
+    private void markDirty() {
+        modificationCount.incrementAndGet();
+        MUTATIONS.increment();
+        Runnable listener = dirtyListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    // Replays the journal over the loaded snapshot, then starts journaling new mutations.
+    private void openJournal() {
+        try {
+            long validLength = storage.replayJournal(new RosterJournal.Replay() {
+                @Override
+                public void studentAdded(String name) {
+                    addStudent(name);
+                }
+
+                @Override
+                public void studentRemoved(String name) {
+                    Student student = findStudent(name);
+                    if (student != null) removeStudent(student);
+                }
+
+                @Override
+                public void studentRenamed(String oldName, String newName) {
+                    Student student = findStudent(oldName);
+                    if (student != null) renameStudent(student, newName);
+                }
+
+                @Override
+                public void scoreAdded(String name, int score) {
+                    Student student = findStudent(name);
+                    if (student != null) addScore(student, score);
+                }
+
+                @Override
+                public void scoresSet(String name, int[] scores) {
+                    Student student = findStudent(name);
+                    if (student != null) updateStudentScores(student, scores);
+                }
+            });
+            // Names from the file are not checked on load; one that no record could hold rules the journal out.
+            if (!roster.stream().allMatch(student -> RosterJournal.fitsRecord(student.getName()))) {
+                Log.warn("The roster has names too long for the journal, falling back to full saves.");
+                if (validLength > 0) {
+                    foldReplayedJournal();
+                }
+                return;
+            }
+            try {
+                journal = storage.openJournal(validLength);
+            } catch (IOException e) {
+                Log.error("Error opening roster journal, falling back to full saves: " + e.getMessage());
+                if (validLength > 0) {
+                    foldReplayedJournal();
+                }
+                return;
+            }
+            journal.setCompactionCallback(this::checkpoint);
+            // The replayed changes are already in the journal on disk.
+            savedModificationCount = modificationCount.get();
+            Log.info("Journal mode active.");
+        } catch (IOException e) {
+            Log.error("Error replaying roster journal, falling back to full saves: " + e.getMessage());
+        }
+    }
+
+    // Without an open journal the replayed records would stay in the journal file, and the next journaled start
+    // would replay them over a snapshot that already holds them. So they are folded into a new snapshot now,
+    // in the same order as a checkpoint: write the snapshot aside, empty the journal, then move the snapshot
+    // into place. If that fails the roster cannot be used safely, and loading fails.
+    private void foldReplayedJournal() {
+        long version = modificationCount.get();
+        try {
+            if (!storage.writeCheckpoint(copyAll(roster.toArray(new Student[0])))) {
+                throw new IOException("the replayed changes could not be written to a checkpoint");
+            }
+            storage.discardJournal();
+            if (!storage.commitCheckpoint()) {
+                throw new IOException("the checkpoint could not be moved into place");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot fold the roster journal into " + storage.getFileName() + ": "
+                    + e.getMessage(), e);
+        }
+        savedModificationCount = version;
+        Log.info("Journal folded into a new snapshot.");
+    }
+
+    // Folds the journal into a fresh snapshot of the roster and resets it.
+    // Holds the write lock throughout, so no mutation can be journaled between the snapshot and the reset.
+    // The snapshot is written to a checkpoint file, the journal is reset, and only then is the checkpoint
+    // moved over the roster file; FileRosterStorage finishes or discards the checkpoint after a crash.
+    private boolean checkpoint() {
+        rosterLock.writeLock().lock();
+        try {
+            long version = modificationCount.get();
+            journal.flush();
+            if (journal.size() == 0 && storage.exists()) {
+                // Nothing journaled since the last checkpoint, so the roster file is already current.
+                savedModificationCount = version;
+                return true;
+            }
+            if (!storage.writeCheckpoint(copyAll(roster.toArray(new Student[0])))) {
+                return false;
+            }
+            journal.reset();
+            if (!storage.commitCheckpoint()) {
+                return false;
+            }
+            savedModificationCount = version;
+            Log.info("Journal compacted into a new snapshot.");
+            if (overHeapBudget()) {
+                reattachScores();
+            }
+            return true;
+        } catch (IOException e) {
+            Log.error("Error compacting roster journal: " + e.getMessage());
+            return false;
+        } finally {
+            rosterLock.writeLock().unlock();
+        }
+    }
+
+    private boolean overHeapBudget() {
+        return heapScoreBytes.get() > HEAP_SCORE_BUDGET && storage.getFormat() == RosterFormat.BINARY;
+    }
+
+    // Saves the roster and moves every student's scores back onto the new file mapping, releasing the heap
+    // copies made by edits. Holds the write lock throughout, so no edit can land between the two steps.
+    private boolean writeBack() {
+        synchronized (saveLock) {
+            rosterLock.writeLock().lock();
+            try {
+                long version = modificationCount.get();
+                if (!storage.saveRoster(copyAll(roster.toArray(new Student[0])))) {
+                    return false;
+                }
+                savedModificationCount = version;
+                reattachScores();
+                return true;
+            } finally {
+                rosterLock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Called with the write lock held, right after the roster file was rewritten from the roster.
+    private void reattachScores() {
+        try {
+            // A copy, which reattach() indexes in constant time.
+            storage.reattach(List.copyOf(roster));
+            long released = heapScoreBytes.getAndSet(0);
+            Log.info("Wrote back " + released + " bytes of edited scores to " + storage.getFileName());
+        } catch (IOException e) {
+            Log.error("Error re-mapping roster scores: " + e.getMessage());
+        }
+    }
+
+    private static List<Student> copyAll(Student[] students) {
+        List<Student> copies = new ArrayList<>(students.length);
+        for (Student student : students) {
+            copies.add(student.copy());
+        }
+        return copies;
+    }
+
+    // Names must not be blank, and must fit in a journal record (checked before anything changes, whether or
+    // not this roster is journaled, so that every roster can later be opened in journal mode).
+    private static boolean isValidName(String trimmed) {
+        return !trimmed.isEmpty() && RosterJournal.fitsRecord(trimmed);
     }
 
-    public void saveData() {
-        storage.saveRoster(this.roster);
+    // Key of the name index; callers that need to recognize the same student before adding it use it too.
+    static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,393 @@
+// RosterStatistics.java
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Class-wide statistics over the averages of a RosterService's students.
+// Registered as a RosterListener, it keeps a 101-bucket histogram of rounded averages, the letter grade counts
+// and an order-statistics tree of averages up to date with every change, so medians, percentiles, ranks and
+// top-k lists are answered in O(log n) (O(k log n) for top-k) without rescanning the roster.
+// Only students with at least one score are graded; students without scores are counted but left out of
+// every distribution.
+public final class RosterStatistics implements RosterListener {
+
+    // Last known state of one student, as currently counted in the statistics.
+    private static final class Entry {
+        final Student student;
+        final long id;
+        boolean graded;
+        double average;
+        String letter;
+
+        Entry(Student student, long id) {
+            this.student = student;
+            this.id = id;
+        }
+    }
+
+    private final RosterService rosterService;
+    // Guards every field below. Roster events update under the write lock; queries share the read lock.
+    private final ReentrantReadWriteLock statsLock = new ReentrantReadWriteLock();
+    private final Map<Student, Entry> entries = new IdentityHashMap<>();
+    private final AverageTree averages = new AverageTree();
+    private final int[] histogram = new int[101];
+    private final Map<String, Integer> letterCounts = new TreeMap<>();
+    private double averageSum;
+    private long nextId;
+
+    // Builds the statistics for the current roster and keeps them in sync until close() is called.
+    public RosterStatistics(RosterService rosterService) {
+        this.rosterService = rosterService;
+        statsLock.writeLock().lock();
+        try {
+            // Holding the lock while registering makes any change that races with the seeding wait for it.
+            for (Student student : rosterService.addRosterListener(this)) {
+                add(student);
+            }
+        } finally {
+            statsLock.writeLock().unlock();
+        }
+    }
+
+    // Stops tracking the roster.
+    public void close() {
+        rosterService.removeRosterListener(this);
+    }
+
+    @Override
+    public void rosterChanged(List<RosterChange> changes) {
+        statsLock.writeLock().lock();
+        try {
+            for (RosterChange change : changes) {
+                Student student = change.getStudent();
+                switch (change.getType()) {
+                    case ADDED -> add(student);
+                    case REMOVED -> remove(student);
+                    case UPDATED -> {
+                        Entry entry = entries.get(student);
+                        if (entry != null) {
+                            uncount(entry);
+                            count(entry);
+                        }
+                    }
+                }
+            }
+        } finally {
+            statsLock.writeLock().unlock();
+        }
+    }
+
+    // Number of students in the roster, graded or not.
+    public int getStudentCount() {
+        statsLock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            statsLock.readLock().unlock();
+        }
+    }
+
+    // Number of students with at least one score.
+    public int getGradedCount() {
+        statsLock.readLock().lock();
+        try {
+            return averages.size();
+        } finally {
+            statsLock.readLock().unlock();
+        }
+    }
+
+    // Mean of the graded students' averages, or 0.0 if nobody is graded yet.
+    public double getMean() {
+        statsLock.readLock().lock();
+        try {
+            int n = averages.size();
+            return n == 0 ? 0.0 : averageSum / n;
+        } finally {
+            statsLock.readLock().unlock();
+        }
+    }
+
+    public double getMedian() {
+        return getPercentile(50);
+    }
+
+    // Average at the given percentile (0-100) of the graded students, interpolating linearly between
+    // neighbouring ranks. Returns 0.0 if nobody is graded yet.
+    public double getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        statsLock.readLock().lock();
+        try {
+            int n = averages.size();
+            if (n == 0) return 0.0;
+            double position = percentile / 100 * (n - 1);
+            int lower = (int) Math.floor(position);
+            double lowerValue = averages.select(lower).average;
+            if (lower == n - 1) return lowerValue;
+            double upperValue = averages.select(lower + 1).average;
+            return lowerValue + (upperValue - lowerValue) * (position - lower);
+        } finally {
+            statsLock.readLock().unlock();
+        }
+    }
+
+    // Rank of the student by average, 1 being the highest; tied averages share a rank.
+    // Returns 0 if the student is not in the roster or has no scores.
+    public int rankOf(Student student) {
+        statsLock.readLock().lock();
+        try {
+            Entry entry = entries.get(student);
+            if (entry == null || !entry.graded) return 0;
+            return averages.size() - averages.countAtMost(entry.average) + 1;
+        } finally {
+            statsLock.readLock().unlock();
+        }
+    }
+
+    // Percentage of graded students whose average is strictly below this student's, or 0.0 if the
+    // student is not in the roster or has no scores.
+    public double percentileRankOf(Student student) {
+        statsLock.readLock().lock();
+        try {
+            Entry entry = entries.get(student);
+            if (entry == null || !entry.graded) return 0.0;
+            return 100.0 * averages.countBelow(entry.average) / averages.size();
+        } finally {
+            statsLock.readLock().unlock();
+        }
+    }
+
+    // The k graded students with the highest averages, best first.
+    public List<Student> topK(int k) {
+        statsLock.readLock().lock();
+        try {
+            int n = averages.size();
+            List<Student> top = new ArrayList<>(Math.min(Math.max(k, 0), n));
+            for (int i = n - 1; i >= 0 && top.size() < k; i--) {
+                top.add(averages.select(i).student);
+            }
+            return top;
+        } finally {
+            statsLock.readLock().unlock();
+        }
+    }
+
+    // Number of graded students per rounded average, indexed 0-100.
+    public int[] getHistogram() {
+        statsLock.readLock().lock();
+        try {
+            return histogram.clone();
+        } finally {
+            statsLock.readLock().unlock();
+        }
+    }
+
+    // Number of graded students per letter grade, in letter order.
+    public Map<String, Integer> getLetterCounts() {
+        statsLock.readLock().lock();
+        try {
+            return new TreeMap<>(letterCounts);
+        } finally {
+            statsLock.readLock().unlock();
+        }
+    }
+
+    private void add(Student student) {
+        Entry entry = new Entry(student, nextId++);
+        if (entries.putIfAbsent(student, entry) == null) {
+            count(entry);
+        }
+    }
+
+    private void remove(Student student) {
+        Entry entry = entries.remove(student);
+        if (entry != null) {
+            uncount(entry);
+        }
+    }
+
+    // Reads the student's current grade into the entry and adds it to the distributions.
+    private void count(Entry entry) {
+        Student student = entry.student;
+        synchronized (student) {
+            entry.graded = student.getScoreCount() > 0;
+            entry.average = student.calculateAverage();
+            entry.letter = student.getLetterScore();
+        }
+        if (!entry.graded) return;
+        averages.insert(entry);
+        histogram[bucket(entry.average)]++;
+        letterCounts.merge(entry.letter, 1, Integer::sum);
+        averageSum += entry.average;
+    }
+
+    // Takes the entry's last counted grade out of the distributions.
+    private void uncount(Entry entry) {
+        if (!entry.graded) return;
+        averages.delete(entry);
+        histogram[bucket(entry.average)]--;
+        letterCounts.computeIfPresent(entry.letter, (letter, n) -> n == 1 ? null : n - 1);
+        averageSum -= entry.average;
+        entry.graded = false;
+    }
+
+    // Histogram bucket of an average: the average rounded to a whole number, within 0-100.
+    static int bucket(double average) {
+        return (int) Math.max(0, Math.min(100, Math.round(average)));
+    }
+
+    // Treap of entries ordered by (average, id), where every node also stores the size of its subtree.
+    // The random priorities keep it balanced in expectation, so every operation is O(log n).
+    private static final class AverageTree {
+
+        private static final class Node {
+            final Entry entry;
+            final int priority;
+            Node left;
+            Node right;
+            int size = 1;
+
+            Node(Entry entry, int priority) {
+                this.entry = entry;
+                this.priority = priority;
+            }
+        }
+
+        private final SplittableRandom random = new SplittableRandom();
+        private Node root;
+
+        int size() {
+            return size(root);
+        }
+
+        void insert(Entry entry) {
+            root = insert(root, new Node(entry, random.nextInt()));
+        }
+
+        void delete(Entry entry) {
+            root = delete(root, entry);
+        }
+
+        // The entry with the given 0-based position in ascending order of average.
+        Entry select(int index) {
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else if (index == leftSize) {
+                    return node.entry;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+            throw new IndexOutOfBoundsException("Rank " + index + " out of range");
+        }
+
+        // Number of entries with an average strictly below the given one.
+        int countBelow(double average) {
+            int count = 0;
+            Node node = root;
+            while (node != null) {
+                if (node.entry.average < average) {
+                    count += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return count;
+        }
+
+        // Number of entries with an average at or below the given one.
+        int countAtMost(double average) {
+            int count = 0;
+            Node node = root;
+            while (node != null) {
+                if (node.entry.average <= average) {
+                    count += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return count;
+        }
+
+        private static Node insert(Node node, Node added) {
+            if (node == null) return added;
+            if (added.priority > node.priority) {
+                Node[] parts = split(node, added.entry);
+                added.left = parts[0];
+                added.right = parts[1];
+                return update(added);
+            }
+            if (compare(added.entry, node.entry) < 0) {
+                node.left = insert(node.left, added);
+            } else {
+                node.right = insert(node.right, added);
+            }
+            return update(node);
+        }
+
+        private static Node delete(Node node, Entry entry) {
+            if (node == null) return null;
+            int order = compare(entry, node.entry);
+            if (order == 0) return merge(node.left, node.right);
+            if (order < 0) {
+                node.left = delete(node.left, entry);
+            } else {
+                node.right = delete(node.right, entry);
+            }
+            return update(node);
+        }
+
+        // Splits the tree into the nodes ordered before the key and the rest.
+        private static Node[] split(Node node, Entry key) {
+            if (node == null) return new Node[2];
+            if (compare(node.entry, key) < 0) {
+                Node[] parts = split(node.right, key);
+                node.right = parts[0];
+                parts[0] = update(node);
+                return parts;
+            }
+            Node[] parts = split(node.left, key);
+            node.left = parts[1];
+            parts[1] = update(node);
+            return parts;
+        }
+
+        // Joins two trees where every node of left is ordered before every node of right.
+        private static Node merge(Node left, Node right) {
+            if (left == null) return right;
+            if (right == null) return left;
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                return update(left);
+            }
+            right.left = merge(left, right.left);
+            return update(right);
+        }
+
+        private static int compare(Entry a, Entry b) {
+            int order = Double.compare(a.average, b.average);
+            return order != 0 ? order : Long.compare(a.id, b.id);
+        }
+
+        private static Node update(Node node) {
+            node.size = size(node.left) + size(node.right) + 1;
+            return node;
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+// SnapshotWriter.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+// Buffered writer shared by the roster snapshot formats.
+// Values are encoded straight into one reused direct ByteBuffer, which is drained to the channel
+// whenever it fills up, so a snapshot of any size writes with a fixed allocation footprint.
+public class SnapshotWriter {
+
+    private final ByteBuffer buffer;
+    private final CharsetEncoder nameEncoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private WritableByteChannel channel;
+
+    public SnapshotWriter(int bufferSize) {
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    // Starts writing a new snapshot to the channel, at its current position.
+    public void open(WritableByteChannel channel) {
+        this.channel = channel;
+        buffer.clear();
+    }
+
+    // Drains everything still buffered to the channel.
+    public void finish() throws IOException {
+        drain();
+        channel = null;
+    }
+
+    // Makes sure at least bytes more bytes fit into the buffer, draining it first if necessary.
+    public void require(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) drain();
+    }
+
+    public void putByte(int value) throws IOException {
+        require(1);
+        buffer.put((byte) value);
+    }
+
+    public void putInt(int value) throws IOException {
+        require(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    public void putLong(long value) throws IOException {
+        require(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    // Writes the name as UTF-8 without creating an intermediate byte array.
+    public void putName(String name) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(name);
+        nameEncoder.reset();
+        CoderResult result;
+        while ((result = nameEncoder.encode(chars, buffer, true)).isOverflow()) {
+            drain();
+        }
+        if (result.isError()) result.throwException();
+        while (nameEncoder.flush(buffer).isOverflow()) {
+            drain();
+        }
+    }
+
+    // Writes a 0-100 score as ASCII digits.
+    public void putScoreDigits(int score) throws IOException {
+        require(3);
+        if (score >= 100) {
+            buffer.put((byte) '1').put((byte) '0').put((byte) '0');
+        } else if (score >= 10) {
+            buffer.put((byte) ('0' + score / 10)).put((byte) ('0' + score % 10));
+        } else {
+            buffer.put((byte) ('0' + score));
+        }
+    }
+
+    // Number of bytes putName() will write for the name, computed without encoding it.
+    public static int utf8Length(String name) {
+        int length = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < name.length() && Character.isLowSurrogate(name.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1; // Malformed surrogates are replaced with '?'
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -1,11 +1,36 @@
 // Student.java
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
+// A student's scores are guarded by the Student's own monitor, so edits to different students never contend.
 public class Student implements Gradable {
 
-    private final String name;
-    private final List<Integer> scores = new ArrayList<>();
+    private static final byte[] NO_SCORES = new byte[0];
+    private static final int INITIAL_CAPACITY = 8;
+
+    private volatile String name;
+    // Scores are always within 0-100, so a single byte per score is enough.
+    private byte[] scores = NO_SCORES;
+    private int count;
+    // Mapped binary roster still holding the scores (from mappedOffset on), or null once they are held in the
+    // array above. The whole mapping is shared by every student of the file, so it costs one reference each.
+    private ByteBuffer mappedScores;
+    private int mappedOffset;
+
+    // Running aggregates, kept up to date by addScore/setScores so that reads never rescan the scores.
+    private long sum;
+    private int min;
+    private int max;
+
+    // Position in the RosterList holding this student, or -1; only RosterList reads or writes it.
+    int rosterSlot = -1;
+
+    private GradingPolicy gradingPolicy = GradingPolicy.STANDARD;
+    // The policy's result for the current scores, or null once a score or the policy has changed.
+    private Grade grade;
 
     public Student(String name) {
         this.name = name;
@@ -15,56 +40,206 @@ public class Student implements Gradable {
         return name;
     }
 
-    // Adds a score, ensuring it is within the valid 0-100 range.
-    public void addScore(int s) {
+    // Only RosterService renames students, so that its name index stays in sync.
+    void rename(String newName) {
+        this.name = newName;
+    }
+
+    // Points the scores at a region of a mapped roster file, with aggregates precomputed by the file.
+    // The bytes are only read when the scores are iterated, and copied to the heap on the first edit.
+    synchronized void attachScores(ByteBuffer mapped, int offset, int count, long sum, int min, int max) {
+        this.mappedScores = mapped;
+        this.mappedOffset = offset;
+        this.scores = NO_SCORES;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.grade = null;
+    }
+
+    // Returns a detached copy of this student, taken atomically with respect to concurrent edits.
+    // Mapped scores are read-only and are shared rather than copied.
+    public synchronized Student copy() {
+        Student copy = new Student(name);
+        if (mappedScores != null) {
+            copy.attachScores(mappedScores, mappedOffset, count, sum, min, max);
+        } else {
+            copy.scores = count == 0 ? NO_SCORES : Arrays.copyOf(scores, count);
+            copy.count = count;
+            copy.sum = sum;
+            copy.min = min;
+            copy.max = max;
+        }
+        copy.gradingPolicy = gradingPolicy;
+        copy.grade = grade;
+        return copy;
+    }
+
+    // Adds a score, ensuring it is within the valid 0-100 range. Only RosterService and the readers edit
+    // scores, so that the roster's journal, listeners and heap accounting see every change.
+    synchronized void addScore(int s) {
         if (s >= 0 && s <= 100) {
-            scores.add(s);
+            if (mappedScores != null) {
+                copyMappedScores(count + 1);
+            }
+            if (count == scores.length) {
+                byte[] grown = new byte[Math.max(INITIAL_CAPACITY, count * 2)];
+                System.arraycopy(scores, 0, grown, 0, count);
+                scores = grown;
+            }
+            append(s);
         }
     }
 
-    // Sets the student's scores by clearing the current list and adding new valid scores.
-    public void setScores(List<Integer> newScores) {
-        scores.clear();
+    // Sets the student's scores by clearing the current scores and adding new valid scores.
+    synchronized void setScores(List<Integer> newScores) {
+        clearScores(newScores.size());
         for (int score : newScores) {
             if (score >= 0 && score <= 100) {
-                scores.add(score);
+                append(score);
+            }
+        }
+    }
+
+    // Sets the scores from the first count entries of the array, skipping values outside 0-100.
+    synchronized void setScores(int[] newScores, int count) {
+        clearScores(count);
+        for (int i = 0; i < count; i++) {
+            int score = newScores[i];
+            if (score >= 0 && score <= 100) {
+                append(score);
             }
         }
     }
 
-    // Returns a defensive copy of the scores list.
-    public List<Integer> getScores() {
-        return new ArrayList<>(scores);
+    // Bytes of score storage this student holds on the heap; mapped scores cost none.
+    public synchronized int heapScoreBytes() {
+        return mappedScores != null ? 0 : scores.length;
     }
 
-    @Override
-    public double calculateAverage() {
-        if (scores.isEmpty()) return 0.0;
-        int sum = 0;
-        for (int s : scores) {
-            sum += s;
+    public synchronized int getScoreCount() {
+        return count;
+    }
+
+    // Returns the score at the given position, in the order the scores were entered.
+    public synchronized int getScore(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Score index " + index + " out of range for " + count + " scores");
         }
-        return sum / (double) scores.size();
+        return mappedScores != null ? mappedScores.get(mappedOffset + index) & 0xFF : scores[index];
+    }
+
+    public synchronized long getScoreSum() {
+        return sum;
+    }
+
+    // Lowest and highest score, or 0 when the student has no scores yet.
+    public synchronized int getMinScore() {
+        return min;
+    }
+
+    public synchronized int getMaxScore() {
+        return max;
+    }
+
+    // Passes every score to the action without copying the underlying storage.
+    public synchronized void forEachScore(IntConsumer action) {
+        ByteBuffer mapped = mappedScores;
+        for (int i = 0; i < count; i++) {
+            action.accept(mapped != null ? mapped.get(mappedOffset + i) & 0xFF : scores[i]);
+        }
+    }
+
+    // Returns a stream over the scores as they are now. Streams are consumed after this method returns, outside
+    // the lock, so the scores are copied first; use forEachScore to read them without a copy.
+    public IntStream scoreStream() {
+        return Arrays.stream(copyScores());
+    }
+
+    // Returns a copy of the scores, for callers that need to keep them past further edits.
+    public synchronized int[] copyScores() {
+        int[] copy = new int[count];
+        for (int i = 0; i < count; i++) {
+            copy[i] = getScore(i);
+        }
+        return copy;
     }
 
     @Override
-    public String getLetterScore() {
-        double avg = calculateAverage();
-        if (avg >= 90) {
-            return "A";
-        } else if (avg >= 80) {
-            return "B";
-        } else if (avg >= 70) {
-            return "C";
-        } else if (avg >= 60) {
-            return "D";
-        } else {
-            return "F";
+    public synchronized double calculateAverage() {
+        return getGrade().getAverage();
+    }
+
+    @Override
+    public synchronized String getLetterScore() {
+        return getGrade().getLetter();
+    }
+
+    @Override
+    public synchronized GradingPolicy getGradingPolicy() {
+        return gradingPolicy;
+    }
+
+    @Override
+    public synchronized void setGradingPolicy(GradingPolicy policy) {
+        if (policy != gradingPolicy) {
+            gradingPolicy = policy;
+            grade = null;
+        }
+    }
+
+    // Returns the cached grade, applying the grading policy first if the scores changed since the last call.
+    public synchronized Grade getGrade() {
+        if (grade == null) {
+            grade = gradingPolicy.grade(this);
         }
+        return grade;
     }
 
     // Returns the list of scores formatted as a comma-separated string.
-    public String getScoresString() {
-        return scores.isEmpty() ? "N/A" : scores.toString().replace("[", "").replace("]", "");
+    public synchronized String getScoresString() {
+        if (count == 0) return "N/A";
+        StringBuilder builder = new StringBuilder(count * 4);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(getScore(i));
+        }
+        return builder.toString();
+    }
+
+    // Resets the scores and aggregates, reserving room for up to expected new scores.
+    private void clearScores(int expected) {
+        mappedScores = null;
+        if (scores.length < expected) {
+            scores = new byte[expected];
+        }
+        count = 0;
+        sum = 0;
+        min = 0;
+        max = 0;
+        grade = null;
+    }
+
+    // Moves mapped scores onto the heap before they are modified, leaving room for at least capacity scores.
+    private void copyMappedScores(int capacity) {
+        byte[] copy = new byte[Math.max(INITIAL_CAPACITY, capacity)];
+        mappedScores.get(mappedOffset, copy, 0, count);
+        scores = copy;
+        mappedScores = null;
+    }
+
+    // Stores a validated score and folds it into the running aggregates. Capacity must already be available.
+    private void append(int score) {
+        if (count == 0) {
+            min = score;
+            max = score;
+        } else {
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+        scores[count++] = (byte) score;
+        sum += score;
+        grade = null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+// StudentRow.java
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+// Table row for one Student, holding cached JavaFX properties for every column.
+// The values are only recomputed by refresh(), when RosterService reports that this student changed,
+// so the table repaints just the rows that actually changed. Must only be used on the FX thread.
+public final class StudentRow {
+
+    private final Student student;
+    private final ReadOnlyStringWrapper name = new ReadOnlyStringWrapper();
+    private final ReadOnlyObjectWrapper<Double> average = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyStringWrapper letter = new ReadOnlyStringWrapper();
+    private final ReadOnlyStringWrapper scores = new ReadOnlyStringWrapper();
+
+    public StudentRow(Student student) {
+        this.student = student;
+        refresh();
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    // Re-reads the student; properties whose value did not change fire no events.
+    public void refresh() {
+        name.set(student.getName());
+        average.set(student.calculateAverage());
+        letter.set(student.getLetterScore());
+        scores.set(student.getScoresString());
+    }
+
+    public ReadOnlyStringProperty nameProperty() {
+        return name.getReadOnlyProperty();
+    }
+
+    public ReadOnlyObjectProperty<Double> averageProperty() {
+        return average.getReadOnlyProperty();
+    }
+
+    public ReadOnlyStringProperty letterProperty() {
+        return letter.getReadOnlyProperty();
+    }
+
+    public ReadOnlyStringProperty scoresProperty() {
+        return scores.getReadOnlyProperty();
+    }
+}
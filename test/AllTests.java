@@ -0,0 +1,110 @@
+// AllTests.java
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Runs every test: each method whose name starts with "test" in the classes below, on a new instance of its
+// class. Prints one line per failure and a summary, and exits with status 1 if anything failed.
+//
+// Usage:
+//   javac -cp "$JAVAFX_HOME/lib/*" -d out src/*.java test/*.java
+//   java -cp out AllTests [TestClass ...]
+public final class AllTests {
+
+    // Test files go under this directory, which is removed once the run ends.
+    static final Path TEMP_ROOT = createTempRoot();
+
+    private static final List<Class<?>> TEST_CLASSES = List.of(
+            RosterCsvReaderTest.class,
+            StudentTest.class,
+            RosterServiceTest.class,
+            AutosaveTaskTest.class,
+            RosterJournalTest.class,
+            FileRosterStorageTest.class,
+            BinaryRosterFormatTest.class,
+            ConcurrencyTest.class,
+            RosterChangeTest.class,
+            ParallelRosterCsvReaderTest.class,
+            RosterStatisticsTest.class,
+            GradingPolicyTest.class,
+            GradeTrackerCliTest.class,
+            MappedRosterTest.class,
+            MetricsTest.class,
+            RosterHttpServerTest.class,
+            RosterBatchTest.class,
+            PersistentIdentityMapTest.class,
+            RosterHistoryTest.class,
+            CourseRegistryTest.class,
+            NameSearchIndexTest.class,
+            RosterListTest.class);
+
+    private AllTests() {
+    }
+
+    static void main(String[] args) throws Exception {
+        List<String> selected = Arrays.asList(args);
+        int run = 0;
+        int failed = 0;
+        try {
+            for (Class<?> testClass : TEST_CLASSES) {
+                if (!selected.isEmpty() && !selected.contains(testClass.getName())) continue;
+                Method[] methods = testClass.getDeclaredMethods();
+                Arrays.sort(methods, Comparator.comparing(Method::getName));
+                for (Method method : methods) {
+                    if (!method.getName().startsWith("test") || method.getParameterCount() != 0
+                            || Modifier.isStatic(method.getModifiers())) continue;
+                    run++;
+                    if (!runTest(testClass, method)) failed++;
+                }
+            }
+        } finally {
+            deleteRecursively(TEMP_ROOT);
+            Log.flush();
+        }
+        System.out.println(run + " tests, " + failed + " failed");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean runTest(Class<?> testClass, Method method) throws ReflectiveOperationException {
+        String name = testClass.getName() + "." + method.getName();
+        Object test = testClass.getDeclaredConstructor().newInstance();
+        method.setAccessible(true);
+        try {
+            method.invoke(test);
+            return true;
+        } catch (InvocationTargetException e) {
+            System.out.println("FAILED " + name + ": " + e.getCause());
+            e.getCause().printStackTrace(System.out);
+            return false;
+        }
+    }
+
+    private static Path createTempRoot() {
+        try {
+            return Files.createTempDirectory("gradetracker-tests");
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    // A roster file still mapped by a test's students cannot be deleted on Windows; leave it.
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+// Assertions.java
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+// The few assertions the tests need. The project has no build tool to pull in a test framework, so AllTests
+// runs the tests itself and these report a failure by throwing AssertionError.
+public final class Assertions {
+
+    // Code that is expected to throw.
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private Assertions() {
+    }
+
+    public static void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    public static void assertFalse(boolean condition, String message) {
+        assertTrue(!condition, message);
+    }
+
+    public static void assertEquals(Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError("expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    public static void assertEquals(double expected, double actual, double tolerance) {
+        if (Math.abs(expected - actual) > tolerance) {
+            throw new AssertionError("expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    public static void assertArrayEquals(int[] expected, int[] actual) {
+        if (!Arrays.equals(expected, actual)) {
+            throw new AssertionError("expected " + Arrays.toString(expected) + " but was " + Arrays.toString(actual));
+        }
+    }
+
+    public static <T extends Throwable> T assertThrows(Class<T> expected, Action action) {
+        try {
+            action.run();
+        } catch (Throwable thrown) {
+            if (expected.isInstance(thrown)) {
+                return expected.cast(thrown);
+            }
+            throw new AssertionError("expected " + expected.getSimpleName() + " but got " + thrown, thrown);
+        }
+        throw new AssertionError("expected " + expected.getSimpleName() + " but nothing was thrown");
+    }
+
+    // A new, empty directory for a test's files. AllTests deletes it after the run.
+    public static Path tempDirectory() throws IOException {
+        return Files.createTempDirectory(AllTests.TEMP_ROOT, "test");
+    }
+}
@@ -0,0 +1,53 @@
+// AutosaveTaskTest.java
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AutosaveTaskTest {
+
+    void testCoalescesABurstOfEditsIntoOneSave() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 100, false);
+        AutosaveTask autosave = new AutosaveTask(service);
+        AtomicInteger saves = new AtomicInteger();
+        CountDownLatch saved = new CountDownLatch(1);
+        autosave.setSaveListener(() -> {
+            saves.incrementAndGet();
+            saved.countDown();
+        });
+        for (int i = 0; i < 20; i++) {
+            service.addStudent("Student " + i);
+        }
+        Assertions.assertTrue(service.isDirty(), "edits are unsaved until the debounce expires");
+        Assertions.assertTrue(saved.await(10, TimeUnit.SECONDS), "autosave ran");
+        Assertions.assertEquals(1, saves.get());
+        Assertions.assertFalse(service.isDirty(), "saved");
+        Assertions.assertEquals(20, Files.readAllLines(file).size());
+        autosave.stop();
+        service.close();
+    }
+
+    void testSavesNothingWhenNothingChanged() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 100, false);
+        Assertions.assertFalse(service.saveIfDirty(), "a clean roster is not written");
+        Assertions.assertFalse(Files.exists(file), "no file was written");
+        service.addStudent("Ann");
+        Assertions.assertTrue(service.saveIfDirty(), "a changed roster is written");
+        Assertions.assertFalse(service.saveIfDirty(), "and only once");
+        service.close();
+    }
+
+    void testStopWritesPendingChanges() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 100, false);
+        AutosaveTask autosave = new AutosaveTask(service);
+        service.addStudent("Ann");
+        autosave.stop();
+        Assertions.assertFalse(service.isDirty(), "stop saved the change without waiting for the debounce");
+        Assertions.assertEquals("Ann,", Files.readString(file).trim());
+        service.close();
+    }
+}
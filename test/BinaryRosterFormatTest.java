@@ -0,0 +1,88 @@
+// BinaryRosterFormatTest.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class BinaryRosterFormatTest {
+
+    void testRoundTripsThroughTheBinaryFormat() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Path csv = directory.resolve("roster.csv");
+        String roster = "Ann, 90, 80\nBob, \nZoë Ø, 0, 100, 55\n";
+        Files.writeString(csv, roster);
+        FileRosterStorage.convert(csv.toString(), directory.resolve("roster.bin").toString(), RosterFormat.BINARY);
+        Assertions.assertEquals(RosterFormat.BINARY, RosterFormat.detect(directory.resolve("roster.bin")));
+
+        List<Student> students = new FileRosterStorage(directory.resolve("roster.bin").toString()).readRoster();
+        Assertions.assertEquals(3, students.size());
+        Student zoe = students.get(2);
+        Assertions.assertEquals("Zoë Ø", zoe.getName());
+        Assertions.assertArrayEquals(new int[]{0, 100, 55}, zoe.copyScores());
+        Assertions.assertEquals(155L, zoe.getScoreSum());
+        Assertions.assertEquals(0, zoe.getMinScore());
+        Assertions.assertEquals(100, zoe.getMaxScore());
+        Assertions.assertEquals(0, zoe.heapScoreBytes());
+
+        FileRosterStorage.convert(directory.resolve("roster.bin").toString(), directory.resolve("back.csv").toString(), RosterFormat.CSV);
+        Assertions.assertEquals(roster, Files.readString(directory.resolve("back.csv")));
+    }
+
+    void testEditsAndSavesABinaryRoster() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Path csv = directory.resolve("roster.csv");
+        Files.writeString(csv, "Ann, 50, 60\nBob, 70\n");
+        Path bin = directory.resolve("roster.bin");
+        FileRosterStorage.convert(csv.toString(), bin.toString(), RosterFormat.BINARY);
+
+        RosterService service = RosterService.load(new FileRosterStorage(bin.toString()), 100, false);
+        service.addScore(service.findStudent("Ann"), 99);
+        Assertions.assertTrue(service.saveData(), "saved over the mapped file");
+        service.close();
+
+        RosterService reloaded = RosterService.load(new FileRosterStorage(bin.toString()), 100, false);
+        Assertions.assertEquals("50, 60, 99", reloaded.findStudent("Ann").getScoresString());
+        Assertions.assertEquals(RosterFormat.BINARY, RosterFormat.detect(bin));
+        reloaded.close();
+    }
+
+    void testPutsBackARosterMovedAsideByAnInterruptedSave() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Path csv = directory.resolve("roster.csv");
+        Files.writeString(csv, "Ann, 50\n");
+        Path bin = directory.resolve("roster.bin");
+        FileRosterStorage.convert(csv.toString(), bin.toString(), RosterFormat.BINARY);
+        Files.move(bin, directory.resolve("roster.bin.retired-2"));
+        Files.writeString(directory.resolve("roster.bin.retired-1"), "older generation");
+
+        List<Student> students = new FileRosterStorage(bin.toString()).readRoster();
+        Assertions.assertEquals("50", students.get(0).getScoresString());
+        Assertions.assertFalse(Files.exists(directory.resolve("roster.bin.retired-1")), "older generations deleted");
+    }
+
+    void testRejectsCorruptFiles() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Path csv = directory.resolve("roster.csv");
+        Files.writeString(csv, "Ann, 50\n");
+        Path bin = directory.resolve("roster.bin");
+        FileRosterStorage.convert(csv.toString(), bin.toString(), RosterFormat.BINARY);
+        byte[] valid = Files.readAllBytes(bin);
+
+        Path corrupt = directory.resolve("corrupt.bin");
+        byte[] negativeNameOffset = valid.clone();
+        ByteBuffer.wrap(negativeNameOffset).putLong(28, -3);
+        Files.write(corrupt, negativeNameOffset);
+        Assertions.assertThrows(IOException.class, () -> BinaryRosterFormat.read(corrupt, student -> { }));
+
+        byte[] scoresPastTheSection = valid.clone();
+        ByteBuffer.wrap(scoresPastTheSection).putInt(28 + 20, 1000);
+        Files.write(corrupt, scoresPastTheSection);
+        Assertions.assertThrows(IOException.class, () -> BinaryRosterFormat.read(corrupt, student -> { }));
+
+        byte[] newerVersion = valid.clone();
+        ByteBuffer.wrap(newerVersion).putInt(4, BinaryRosterFormat.VERSION + 1);
+        Files.write(corrupt, newerVersion);
+        Assertions.assertThrows(IOException.class, () -> BinaryRosterFormat.read(corrupt, student -> { }));
+    }
+}
@@ -0,0 +1,82 @@
+// ConcurrencyTest.java
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class ConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private static RosterService emptyRoster() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        return RosterService.load(new FileRosterStorage(file.toString()), 10_000, false);
+    }
+
+    private static void runOnThreads(ExecutorService executor, Runnable task) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(task));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    void testConcurrentScoresOnOneStudentAreAllKept() throws Exception {
+        RosterService service = emptyRoster();
+        service.addStudent("Ann");
+        Student ann = service.findStudent("Ann");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        runOnThreads(executor, () -> {
+            for (int i = 0; i < 1000; i++) {
+                service.addScore(ann, 100);
+            }
+        });
+        executor.shutdown();
+        Assertions.assertEquals(THREADS * 1000, ann.getScoreCount());
+        Assertions.assertEquals(THREADS * 100_000L, ann.getScoreSum());
+        Assertions.assertEquals(100.0, ann.calculateAverage(), 1e-9);
+        service.close();
+    }
+
+    void testSnapshotsStayConsistentWhileOtherThreadsEdit() throws Exception {
+        RosterService service = emptyRoster();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        Future<?> reader = executor.submit(() -> {
+            for (int i = 0; i < 200; i++) {
+                for (Student student : service.snapshot()) {
+                    // Every student gets its scores in a single replace of two equal scores.
+                    int count = student.getScoreCount();
+                    if (count != 0 && (count != 2 || student.getScore(0) != student.getScore(1))) {
+                        throw new AssertionError("torn copy of " + student.getName() + ": " + student.getScoresString());
+                    }
+                }
+            }
+        });
+        int[] nextThread = {0};
+        runOnThreads(executor, () -> {
+            int thread;
+            synchronized (nextThread) {
+                thread = nextThread[0]++;
+            }
+            for (int i = 0; i < 500; i++) {
+                String name = "Student " + thread + "-" + i;
+                service.addStudent(name);
+                Student student = service.findStudent(name);
+                service.updateStudentScores(student, new int[]{i % 101, i % 101});
+                if (i % 3 == 0) {
+                    service.removeStudent(student);
+                }
+            }
+        });
+        reader.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        Assertions.assertEquals(THREADS * (500 - 167), service.size());
+        Assertions.assertEquals(service.size(), service.getRoster().size());
+        service.close();
+    }
+}
@@ -0,0 +1,126 @@
+// CourseRegistryTest.java
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+class CourseRegistryTest {
+
+    private static void enroll(RosterService course, String name, int... scores) {
+        course.addStudent(name);
+        for (int score : scores) {
+            course.addScore(course.findStudent(name), score);
+        }
+    }
+
+    void testCoursesAreCreatedSavedAndLoadedOnTheirOwn() throws Exception {
+        Path directory = Assertions.tempDirectory().resolve("courses");
+        try (CourseRegistry registry = new CourseRegistry(directory, 100, false)) {
+            enroll(registry.createCourse("math"), "Ann", 90);
+            registry.createCourse("art");
+            Assertions.assertEquals(List.of("art", "math"), List.copyOf(registry.courseIds()));
+            Assertions.assertEquals("", Files.readString(directory.resolve("art.csv")));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> registry.createCourse("math"));
+
+            Assertions.assertEquals(0, registry.saveAll());
+            Assertions.assertEquals("Ann, 90\n", Files.readString(directory.resolve("math.csv")));
+            enroll(registry.course("math"), "Bob");
+            registry.unload("math");
+            Assertions.assertFalse(registry.isLoaded("math"), "unloaded");
+            Assertions.assertEquals("Ann, 90\nBob, \n", Files.readString(directory.resolve("math.csv")));
+        }
+        try (CourseRegistry registry = new CourseRegistry(directory, 100, false)) {
+            Assertions.assertFalse(registry.isLoaded("math"), "loaded lazily");
+            Assertions.assertEquals(2, registry.course("math").size());
+            Assertions.assertTrue(registry.isLoaded("math"), "loaded on first use");
+            Assertions.assertFalse(registry.isLoaded("art"), "other courses stay on disk");
+        }
+    }
+
+    void testRejectsUnknownCoursesAndUnsafeIds() throws Exception {
+        try (CourseRegistry registry = new CourseRegistry(Assertions.tempDirectory(), 100, false)) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> registry.course("history"));
+            for (String id : List.of("", "../roster", "a/b", "-math", "math.csv")) {
+                Assertions.assertThrows(IllegalArgumentException.class, () -> registry.createCourse(id));
+            }
+            Assertions.assertTrue(registry.courseIds().isEmpty(), "nothing created");
+        }
+    }
+
+    void testAnswersQueriesAcrossCourses() throws Exception {
+        try (CourseRegistry registry = new CourseRegistry(Assertions.tempDirectory(), 100, false)) {
+            RosterService math = registry.createCourse("math");
+            RosterService art = registry.createCourse("art");
+            RosterService music = registry.createCourse("music");
+            enroll(math, "Ann", 95);
+            enroll(math, "Bob", 75);
+            enroll(art, "ann", 75);
+            enroll(art, "Cy");
+            enroll(music, "Ann");
+
+            Map<String, Grade> grades = registry.gradesOf("ANN");
+            Assertions.assertEquals(List.of("art", "math"), List.copyOf(grades.keySet()));
+            Assertions.assertEquals("A", grades.get("math").getLetter());
+            Assertions.assertEquals(OptionalDouble.of(3.0), registry.gpaOf("Ann"));
+            Assertions.assertEquals(OptionalDouble.empty(), registry.gpaOf("Cy"));
+
+            Assertions.assertEquals(Map.of("A", 1, "C", 2), registry.getLetterCounts());
+            Assertions.assertEquals(2, registry.getHistogram()[75]);
+            Assertions.assertEquals(3, Arrays.stream(registry.getHistogram()).sum());
+            Assertions.assertEquals(245 / 3.0, registry.getMean(), 1e-9);
+
+            // Statistics follow later edits.
+            math.addScore(math.findStudent("Bob"), 95);
+            Assertions.assertEquals(Map.of("A", 1, "B", 1, "C", 1), registry.getLetterCounts());
+        }
+    }
+
+    void testCrossCourseQueriesLeaveCoursesOnDisk() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Files.writeString(directory.resolve("math.csv"), "Ann, 95\nBob, 75\nann, 10\n");
+        Files.writeString(directory.resolve("art.csv"), "Ann, 75\n");
+        try (CourseRegistry registry = new CourseRegistry(directory, 100, false)) {
+            Assertions.assertEquals(Map.of("A", 1, "C", 2), registry.getLetterCounts());
+            Assertions.assertEquals(245 / 3.0, registry.getMean(), 1e-9);
+            Assertions.assertEquals(List.of("art", "math"), List.copyOf(registry.gradesOf("ANN").keySet()));
+            Assertions.assertEquals("A", registry.gradesOf("Ann").get("math").getLetter());
+            Assertions.assertFalse(registry.isLoaded("math") || registry.isLoaded("art"), "read from disk only");
+
+            // A loaded course answers from memory, including edits that are not saved yet.
+            RosterService art = registry.course("art");
+            art.updateStudentScores(art.findStudent("Ann"), new int[]{85});
+            Assertions.assertEquals(Map.of("A", 1, "B", 1, "C", 1), registry.getLetterCounts());
+            Assertions.assertFalse(registry.isLoaded("math"), "math is still on disk");
+        }
+    }
+
+    void testJournaledEditsAreSeenWithoutAnUnloadedCourse() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        try (CourseRegistry registry = new CourseRegistry(directory, 100, true)) {
+            enroll(registry.createCourse("math"), "Ann", 95);
+            registry.unload("math");
+        }
+        try (CourseRegistry registry = new CourseRegistry(directory, 100, true)) {
+            // The score only exists in the journal, so the course has to be loaded to count it.
+            Assertions.assertEquals(Map.of("A", 1), registry.getLetterCounts());
+            Assertions.assertTrue(registry.isLoaded("math"), "loaded to replay its journal");
+        }
+    }
+
+    void testLoadsACourseOnceAndRetriesAFailedLoad() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Files.writeString(directory.resolve("math.csv"), "Ann, 95\n");
+        Files.writeString(directory.resolve("art.csv"), "Ann, ninety\n");
+        try (CourseRegistry registry = new CourseRegistry(directory, 100, false)) {
+            List<RosterService> loaded = List.of("math", "math", "math", "math").parallelStream().map(registry::course).toList();
+            Assertions.assertTrue(loaded.stream().allMatch(course -> course == loaded.get(0)), "one roster per course");
+
+            Assertions.assertThrows(RuntimeException.class, () -> registry.course("art"));
+            Assertions.assertFalse(registry.isLoaded("art"), "the failed load is forgotten");
+            Files.writeString(directory.resolve("art.csv"), "Ann, 90\n");
+            Assertions.assertEquals(1, registry.course("art").size());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+// FileRosterStorageTest.java
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class FileRosterStorageTest {
+
+    private static Student student(String name, int... scores) {
+        Student student = new Student(name);
+        student.setScores(scores, scores.length);
+        return student;
+    }
+
+    void testSavesThroughATemporaryFile() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        FileRosterStorage storage = new FileRosterStorage(file.toString());
+        Assertions.assertTrue(storage.saveRoster(List.of(student("Ann", 90, 80), student("Bob"))), "saved");
+        Assertions.assertEquals("Ann, 90, 80\nBob, \n", Files.readString(file));
+        Assertions.assertFalse(Files.exists(Path.of(file + ".tmp")), "the temporary file was moved into place");
+    }
+
+    void testAFailedSaveLeavesThePreviousRosterUntouched() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        FileRosterStorage storage = new FileRosterStorage(file.toString());
+        storage.saveRoster(List.of(student("Ann", 90)));
+        // A directory where the temporary file should go makes the write fail.
+        Files.createDirectories(Path.of(file + ".tmp").resolve("blocked"));
+        Assertions.assertFalse(storage.saveRoster(List.of(student("Bob", 10))), "the save failed");
+        Assertions.assertEquals("Ann, 90\n", Files.readString(file));
+    }
+
+    void testLoadRemovesALeftoverTemporaryFile() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 90\n");
+        Files.writeString(Path.of(file + ".tmp"), "Half a sna");
+        Assertions.assertEquals(1, new FileRosterStorage(file.toString()).readRoster().size());
+        Assertions.assertFalse(Files.exists(Path.of(file + ".tmp")), "leftover removed");
+    }
+
+    void testACheckpointNextToAnEmptyJournalIsFinishedOnLoad() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 50\n");
+        Files.writeString(Path.of(file + ".checkpoint"), "Ann, 50, 60\n");
+        Files.createFile(file.resolveSibling("roster.journal"));
+        List<Student> roster = new FileRosterStorage(file.toString()).readRoster();
+        Assertions.assertEquals("50, 60", roster.get(0).getScoresString());
+        Assertions.assertFalse(Files.exists(Path.of(file + ".checkpoint")), "checkpoint moved into place");
+    }
+
+    void testACheckpointNextToAJournalWithRecordsIsDiscarded() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 50\n");
+        Files.writeString(Path.of(file + ".checkpoint"), "Ann, 50, 60\n");
+        Files.write(file.resolveSibling("roster.journal"), new byte[]{'A'});
+        List<Student> roster = new FileRosterStorage(file.toString()).readRoster();
+        Assertions.assertEquals("50", roster.get(0).getScoresString());
+        Assertions.assertFalse(Files.exists(Path.of(file + ".checkpoint")), "checkpoint discarded");
+    }
+}
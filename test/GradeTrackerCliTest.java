@@ -0,0 +1,84 @@
+// GradeTrackerCliTest.java
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class GradeTrackerCliTest {
+
+    private static int run(String... args) {
+        return GradeTrackerCli.run(args);
+    }
+
+    void testImportsAppendsAndReplacesScores() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        String roster = directory.resolve("roster.csv").toString();
+        Files.writeString(directory.resolve("first.csv"), "Ann, 90\nBob, 70\n");
+        Files.writeString(directory.resolve("more.jsonl"), "{\"name\":\"ann\",\"scores\":[80]}\n{\"name\":\"Cy\",\"scores\":[]}\n");
+        Files.writeString(directory.resolve("fix.csv"), "Bob, 75\n");
+
+        Assertions.assertEquals(0, run("import", directory.resolve("first.csv").toString(), "--roster", roster));
+        Assertions.assertEquals(0, run("import", directory.resolve("more.jsonl").toString(), "--roster", roster));
+        Assertions.assertEquals(0, run("import", directory.resolve("fix.csv").toString(), "--roster", roster, "--replace"));
+        Assertions.assertEquals(List.of("Ann, 90, 80", "Bob, 75", "Cy,"), Files.readAllLines(Path.of(roster)).stream().map(String::trim).toList());
+    }
+
+    void testRejectsAnImportWithOutOfRangeScoresWithoutSaving() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Path roster = directory.resolve("roster.csv");
+        Files.writeString(roster, "Ann, 90\n");
+        Files.writeString(directory.resolve("bad.csv"), "Ann, 100, 180\nBob, 70\n");
+        Files.writeString(directory.resolve("bad.jsonl"), "{\"name\":\"Bob\",\"scores\":[-1]}\n");
+        Assertions.assertEquals(1, run("import", directory.resolve("bad.csv").toString(), "--roster", roster.toString()));
+        Assertions.assertEquals(1, run("import", directory.resolve("bad.jsonl").toString(), "--roster", roster.toString()));
+        Assertions.assertEquals("Ann, 90\n", Files.readString(roster));
+    }
+
+    void testReportsWithAGradingPolicy() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Path roster = directory.resolve("roster.csv");
+        Files.writeString(roster, "Ann, 50, 90, 100\nBob, \n");
+        Path report = directory.resolve("report.csv");
+        Assertions.assertEquals(0, run("report", "--roster", roster.toString(), "--policy", "drop-lowest:1", "--out", report.toString()));
+        Assertions.assertEquals(List.of("name,score_count,average,letter", "Ann,3,95.00,A", "Bob,0,,"), Files.readAllLines(report));
+        Assertions.assertEquals(1, run("report", "--roster", roster.toString(), "--policy", "median"));
+        Assertions.assertEquals(0, run("report", "--roster", roster.toString(), "--policy", "weighted:homework:2:40,exams:1:60",
+                "--out", report.toString()));
+        Assertions.assertEquals(List.of("name,score_count,average,letter", "Ann,3,88.00,B", "Bob,0,,"), Files.readAllLines(report));
+        Assertions.assertEquals(1, run("report", "--roster", roster.toString(), "--policy", "weighted:homework:2"));
+    }
+
+    void testExportsAndConverts() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Path roster = directory.resolve("roster.csv");
+        Files.writeString(roster, "Ann, 80, 90\n");
+        Path binary = directory.resolve("roster.bin");
+        Assertions.assertEquals(0, run("convert", roster.toString(), binary.toString()));
+        Assertions.assertEquals(RosterFormat.BINARY, RosterFormat.detect(binary));
+
+        Path exported = directory.resolve("roster.jsonl");
+        Assertions.assertEquals(0, run("export", "--roster", binary.toString(), "--format", "jsonl", "--out", exported.toString()));
+        String json = Files.readString(exported);
+        Assertions.assertTrue(json.contains("\"name\":\"Ann\"") && json.contains("[80,90]"), "exported " + json);
+        Assertions.assertEquals(2, run());
+        Assertions.assertEquals(2, run("grade"));
+    }
+
+    void testExportsAndConvertsJournaledEdits() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Path roster = directory.resolve("roster.csv");
+        Files.writeString(roster, "Ann, 80\nBob, \n");
+        RosterService service = RosterService.load(new FileRosterStorage(roster.toString()), 100, true);
+        service.addScore(service.findStudent("Ann"), 90);
+        service.addStudent("Cy");
+        service.close();
+        Assertions.assertEquals("Ann, 80\nBob, \n", Files.readString(roster));
+
+        Path converted = directory.resolve("converted.csv");
+        Assertions.assertEquals(0, run("convert", roster.toString(), converted.toString()));
+        Assertions.assertEquals("Ann, 80, 90\nBob, \nCy, \n", Files.readString(converted));
+
+        Path exported = directory.resolve("exported.csv");
+        Assertions.assertEquals(0, run("export", "--roster", converted.toString(), "--out", exported.toString()));
+        Assertions.assertEquals(Files.readString(converted), Files.readString(exported));
+    }
+}
@@ -0,0 +1,86 @@
+// GradingPolicyTest.java
+import java.nio.file.Path;
+import java.util.List;
+
+class GradingPolicyTest {
+
+    private static Student student(int... scores) {
+        Student student = new Student("Ann");
+        student.setScores(scores, scores.length);
+        return student;
+    }
+
+    void testStandardPolicyAveragesEveryScore() {
+        Grade grade = GradingPolicy.STANDARD.grade(student(90, 80, 70));
+        Assertions.assertEquals(80.0, grade.getAverage(), 1e-9);
+        Assertions.assertEquals("B", grade.getLetter());
+        Assertions.assertEquals(0.0, GradingPolicy.STANDARD.grade(student()).getAverage(), 1e-9);
+    }
+
+    void testDropLowestKeepsAtLeastOneScore() {
+        GradingPolicy dropTwo = GradingPolicy.dropLowest(2, LetterScale.STANDARD);
+        Assertions.assertEquals(95.0, dropTwo.grade(student(40, 90, 100, 10)).getAverage(), 1e-9);
+        Assertions.assertEquals(90.0, dropTwo.grade(student(90, 40)).getAverage(), 1e-9);
+        Assertions.assertEquals(70.0, dropTwo.grade(student(70)).getAverage(), 1e-9);
+        Assertions.assertEquals(65.0, dropTwo.grade(student(50, 60, 70, 50)).getAverage(), 1e-9);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GradingPolicy.dropLowest(-1, LetterScale.STANDARD));
+    }
+
+    void testCurveIsCappedAt100() {
+        GradingPolicy curve = GradingPolicy.curved(5, LetterScale.STANDARD);
+        Assertions.assertEquals(90.0, curve.grade(student(85)).getAverage(), 1e-9);
+        Assertions.assertEquals("A", curve.grade(student(85)).getLetter());
+        Assertions.assertEquals(100.0, curve.grade(student(99)).getAverage(), 1e-9);
+        Assertions.assertEquals(0.0, curve.grade(student()).getAverage(), 1e-9);
+    }
+
+    void testWeightedCategoriesTakeScoresInOrder() {
+        GradingPolicy weighted = GradingPolicy.weighted(List.of(
+                new GradingPolicy.Category("homework", 2, 40),
+                new GradingPolicy.Category("exams", 1, 60)), LetterScale.STANDARD);
+        // Homework 80 and 100 average 90, the exam 70: 0.4 * 90 + 0.6 * 70 = 78.
+        Assertions.assertEquals(78.0, weighted.grade(student(80, 100, 70)).getAverage(), 1e-9);
+        Assertions.assertEquals("C", weighted.grade(student(80, 100, 70)).getLetter());
+        // Scores past the last category's count still belong to it.
+        Assertions.assertEquals(0.4 * 90 + 0.6 * 60, weighted.grade(student(80, 100, 70, 50)).getAverage(), 1e-9);
+        // Until there is an exam score, homework is the whole grade.
+        Assertions.assertEquals(85.0, weighted.grade(student(85)).getAverage(), 1e-9);
+        Assertions.assertEquals(0.0, weighted.grade(student()).getAverage(), 1e-9);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GradingPolicy.weighted(List.of(), LetterScale.STANDARD));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new GradingPolicy.Category("exams", 0, 60));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new GradingPolicy.Category("exams", 1, -1));
+    }
+
+    void testLetterScales() {
+        LetterScale strict = new LetterScale(93, 85, 77, 70);
+        Assertions.assertEquals("B", strict.letterFor(92.99));
+        Assertions.assertEquals("A", strict.letterFor(93));
+        Assertions.assertEquals("F", strict.letterFor(69.5));
+        Assertions.assertEquals("A", LetterScale.STANDARD.letterFor(100));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LetterScale(80, 90, 70, 60));
+    }
+
+    void testStudentsCacheTheirGradeUntilScoresOrPolicyChange() {
+        Student student = student(60, 80);
+        Grade first = student.getGrade();
+        Assertions.assertTrue(student.getGrade() == first, "cached");
+        student.addScore(100);
+        Assertions.assertEquals(80.0, student.calculateAverage(), 1e-9);
+        student.setGradingPolicy(GradingPolicy.dropLowest(1, LetterScale.STANDARD));
+        Assertions.assertEquals(90.0, student.calculateAverage(), 1e-9);
+    }
+
+    void testTheRosterRegradesEveryStudentWithANewPolicy() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 10, false);
+        service.addStudent("Ann");
+        service.updateStudentScores(service.findStudent("Ann"), new int[]{50, 100});
+        service.setGradingPolicy(GradingPolicy.dropLowest(1, LetterScale.STANDARD));
+        Assertions.assertEquals("A", service.findStudent("Ann").getLetterScore());
+        service.addStudent("Bob");
+        service.updateStudentScores(service.findStudent("Bob"), new int[]{10, 80});
+        Assertions.assertEquals(80.0, service.findStudent("Bob").calculateAverage(), 1e-9);
+        Assertions.assertEquals(List.of("Ann", "Bob"), service.getRoster().stream().map(Student::getName).toList());
+        service.close();
+    }
+}
@@ -0,0 +1,57 @@
+// MappedRosterTest.java
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class MappedRosterTest {
+
+    private static Path binaryRoster(String csv) throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Files.writeString(directory.resolve("roster.csv"), csv);
+        Path binary = directory.resolve("roster.bin");
+        FileRosterStorage.convert(directory.resolve("roster.csv").toString(), binary.toString(), RosterFormat.BINARY);
+        return binary;
+    }
+
+    private static long heapScoreBytes(Path roster) {
+        return Metrics.snapshot().get("roster." + roster + ".heapScoreBytes").longValue();
+    }
+
+    void testOnlyEditedScoresAreCountedOnTheHeap() throws Exception {
+        Path binary = binaryRoster("Ann, 50, 60\nBob, 70\n");
+        RosterService service = RosterService.load(new FileRosterStorage(binary.toString()), 100, false);
+        Assertions.assertEquals(0L, heapScoreBytes(binary));
+        Student ann = service.findStudent("Ann");
+        service.addScore(ann, 80);
+        Assertions.assertEquals((long) ann.heapScoreBytes(), heapScoreBytes(binary));
+        Assertions.assertTrue(heapScoreBytes(binary) > 0, "the edited scores were copied");
+        service.removeStudent(ann);
+        Assertions.assertEquals(0L, heapScoreBytes(binary));
+        service.close();
+        Assertions.assertFalse(Metrics.snapshot().containsKey("roster." + binary + ".heapScoreBytes"), "gauge removed");
+    }
+
+    void testReattachMovesEditedScoresBackOntoTheFile() throws Exception {
+        Path binary = binaryRoster("Ann, 50, 60\nBob, 70\n");
+        FileRosterStorage storage = new FileRosterStorage(binary.toString());
+        List<Student> students = storage.readRoster();
+        students.get(0).addScore(90);
+        Assertions.assertTrue(storage.saveRoster(students), "saved");
+        storage.reattach(students);
+        Assertions.assertEquals(0, students.get(0).heapScoreBytes());
+        Assertions.assertArrayEquals(new int[]{50, 60, 90}, students.get(0).copyScores());
+        Assertions.assertEquals(200L, students.get(0).getScoreSum());
+    }
+
+    void testReattachRefusesADifferentRoster() throws Exception {
+        Path binary = binaryRoster("Ann, 50\nBob, 70\n");
+        FileRosterStorage storage = new FileRosterStorage(binary.toString());
+        List<Student> students = storage.readRoster();
+        Student other = new Student("Other");
+        other.addScore(10);
+        Assertions.assertThrows(IOException.class, () -> storage.reattach(List.of(students.get(0), other)));
+        Assertions.assertArrayEquals(new int[]{10}, other.copyScores());
+        Assertions.assertThrows(IOException.class, () -> new FileRosterStorage(binary.resolveSibling("roster.csv").toString()).reattach(students));
+    }
+}
@@ -0,0 +1,71 @@
+// MetricsTest.java
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+class MetricsTest {
+
+    void testHistogramPercentilesAreWithinTheirBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assertions.assertEquals(0L, histogram.getPercentile(50));
+        for (long nanos = 1; nanos <= 10_000; nanos++) {
+            histogram.record(nanos);
+        }
+        histogram.record(-5);
+        Assertions.assertEquals(10_001L, histogram.getCount());
+        Assertions.assertEquals(10_000L, histogram.getMax());
+        Assertions.assertEquals(50_005_000 / 10_001.0, histogram.getMean(), 1e-9);
+        long median = histogram.getPercentile(50);
+        Assertions.assertTrue(median >= 5000 && median <= 5000 * 1.07, "median " + median);
+        long p99 = histogram.getPercentile(99);
+        Assertions.assertTrue(p99 >= 9900 && p99 <= 10_000, "p99 " + p99);
+        Assertions.assertEquals(10_000L, histogram.getPercentile(100));
+    }
+
+    void testRegistryHandsOutSharedMetricsAndSnapshotsThem() {
+        Assertions.assertTrue(Metrics.counter("test.counter") == Metrics.counter("test.counter"), "same counter");
+        Metrics.counter("test.counter").add(3);
+        Metrics.histogram("test.latency").record(100);
+        Metrics.gauge("test.gauge", () -> 1);
+        Metrics.gauge("test.gauge", () -> 42);
+        Map<String, Number> snapshot = Metrics.snapshot();
+        Assertions.assertTrue(snapshot.get("test.counter").longValue() >= 3, "counter");
+        Assertions.assertEquals(42L, snapshot.get("test.gauge"));
+        Assertions.assertTrue(snapshot.containsKey("test.latency.p99_ns"), "histogram percentiles");
+        Metrics.removeGauge("test.gauge");
+        Assertions.assertFalse(Metrics.snapshot().containsKey("test.gauge"), "gauge removed");
+    }
+
+    void testRosterServiceCountsMutationsAndPublishesGauges() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 10, false);
+        long before = Metrics.counter("roster.mutations").sum();
+        service.addStudent("Ann");
+        service.addScore(service.findStudent("Ann"), 90);
+        Assertions.assertEquals(before + 2, Metrics.counter("roster.mutations").sum());
+        Map<String, Number> snapshot = Metrics.snapshot();
+        Assertions.assertEquals(1L, snapshot.get("roster." + file + ".students"));
+        Assertions.assertEquals(2L, snapshot.get("roster." + file + ".pendingChanges"));
+        service.close();
+    }
+
+    void testLogIsLevelGatedAndFlushes() {
+        Assertions.assertTrue(Log.isEnabled(Log.Level.INFO), "INFO is on by default");
+        Assertions.assertFalse(Log.isEnabled(Log.Level.DEBUG), "DEBUG is off by default");
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+        try {
+            Log.debug("discarded");
+            Log.info("written");
+            Log.flush();
+        } finally {
+            System.setOut(original);
+        }
+        String output = captured.toString(StandardCharsets.UTF_8);
+        Assertions.assertTrue(output.contains("LOG: written"), output);
+        Assertions.assertFalse(output.contains("discarded"), output);
+    }
+}
@@ -0,0 +1,84 @@
+// NameSearchIndexTest.java
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class NameSearchIndexTest {
+
+    private static RosterService roster(String... names) throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 100_000, false);
+        for (String name : names) {
+            service.addStudent(name);
+        }
+        return service;
+    }
+
+    private static List<String> search(NameSearchIndex index, String query, int limit) {
+        List<String> names = new ArrayList<>();
+        index.search(query, limit).forEach(student -> names.add(student.getName()));
+        return names;
+    }
+
+    void testRanksExactThenPrefixThenWordThenTypoMatches() throws Exception {
+        RosterService service = roster("Bob Smiht", "Alice Smith", "Smithson", "Smith", "Carol Jones");
+        NameSearchIndex index = new NameSearchIndex(service);
+        Assertions.assertEquals(List.of("Smith", "Smithson", "Alice Smith", "Bob Smiht"), search(index, "smith", 10));
+        Assertions.assertEquals(List.of("Smith", "Smithson"), search(index, "SMITH", 2));
+        Assertions.assertEquals(List.of("Alice Smith"), search(index, "  alice   sm", 10));
+        Assertions.assertEquals(List.of("Carol Jones"), search(index, "jonse", 10));
+        index.close();
+        service.close();
+    }
+
+    void testShortQueriesOnlyMatchPrefixes() throws Exception {
+        RosterService service = roster("Ann", "Anna Lee", "Bob");
+        NameSearchIndex index = new NameSearchIndex(service);
+        Assertions.assertEquals(List.of("Ann", "Anna Lee"), search(index, "an", 10));
+        Assertions.assertEquals(List.of("Anna Lee"), search(index, "le", 10));
+        Assertions.assertEquals(List.of(), search(index, "bx", 10));
+        Assertions.assertEquals(List.of(), search(index, " ", 10));
+        Assertions.assertEquals(List.of(), search(index, "ann", 0));
+        index.close();
+        service.close();
+    }
+
+    void testFollowsAddsRenamesAndRemovals() throws Exception {
+        RosterService service = roster("Carol Jones", "Smith");
+        NameSearchIndex index = new NameSearchIndex(service);
+        Assertions.assertEquals(2, index.size());
+
+        service.renameStudent(service.findStudent("Carol Jones"), "Carol Brown");
+        service.removeStudent(service.findStudent("Smith"));
+        service.addStudent("Jonas Smith");
+        service.addScore(service.findStudent("Jonas Smith"), 80);
+        RosterBatch batch = new RosterBatch();
+        batch.addStudent("Dana Brown");
+        service.applyBatch(batch);
+
+        Assertions.assertEquals(3, index.size());
+        Assertions.assertEquals(List.of("Jonas Smith"), search(index, "jon", 10));
+        Assertions.assertEquals(List.of("Jonas Smith"), search(index, "smith", 10));
+        Assertions.assertEquals(List.of("Carol Brown", "Dana Brown"), search(index, "brown", 10));
+
+        index.close();
+        service.addStudent("Brown");
+        Assertions.assertEquals(3, index.size());
+        service.close();
+    }
+
+    void testFindsOneNameAmongMany() throws Exception {
+        RosterService service = roster();
+        RosterBatch batch = new RosterBatch();
+        for (int i = 0; i < 50_000; i++) {
+            batch.addStudent("Student " + i);
+        }
+        batch.addStudent("Zelda Fitzgerald");
+        service.applyBatch(batch);
+        NameSearchIndex index = new NameSearchIndex(service);
+        Assertions.assertEquals(List.of("Zelda Fitzgerald"), search(index, "fitzgerlad", 5));
+        Assertions.assertEquals(List.of("Student 4999", "Student 49990"), search(index, "student 4999", 2));
+        index.close();
+        service.close();
+    }
+}
@@ -0,0 +1,69 @@
+// ParallelRosterCsvReaderTest.java
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelRosterCsvReaderTest {
+
+    // About 4 MB, so the file is split into several of the reader's 1 MB chunks.
+    private static String largeRoster(int students) {
+        StringBuilder csv = new StringBuilder();
+        Random random = new Random(3);
+        for (int i = 0; i < students; i++) {
+            csv.append("Student ").append(i).append(i % 7 == 0 ? "  , N/A" : "");
+            for (int j = random.nextInt(40); j > 0; j--) {
+                csv.append(", ").append(random.nextInt(101));
+            }
+            csv.append(i % 5 == 0 ? "\r\n" : "\n");
+            if (i % 1000 == 0) {
+                csv.append("\n");
+            }
+        }
+        return csv.toString();
+    }
+
+    private static List<String> describe(List<Student> students) {
+        List<String> lines = new ArrayList<>(students.size());
+        for (Student student : students) {
+            lines.add(student.getName() + ":" + student.getScoresString());
+        }
+        return lines;
+    }
+
+    void testReadsTheSameStudentsAsASequentialRead() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, largeRoster(40_000));
+        List<Student> sequential = new ArrayList<>();
+        try (RosterCsvReader reader = new FileRosterStorage(file.toString()).openRoster()) {
+            reader.forEachRemaining(sequential::add);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<Student> parallel = ParallelRosterCsvReader.read(file, pool);
+        pool.shutdown();
+        Assertions.assertEquals(40_000, parallel.size());
+        Assertions.assertEquals(describe(sequential), describe(parallel));
+    }
+
+    void testReportsTheFileLineOfAnInvalidScore() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        String roster = largeRoster(40_000);
+        int lines = (int) roster.chars().filter(c -> c == '\n').count();
+        Files.writeString(file, roster + "Bad, 1x\n");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        NumberFormatException e = Assertions.assertThrows(NumberFormatException.class,
+                () -> ParallelRosterCsvReader.read(file, pool));
+        pool.shutdown();
+        Assertions.assertEquals("Invalid score on line " + (lines + 1), e.getMessage());
+    }
+
+    void testHandlesEmptyAndTinyFiles() throws Exception {
+        Path directory = Assertions.tempDirectory();
+        Files.writeString(directory.resolve("empty.csv"), "");
+        Assertions.assertTrue(ParallelRosterCsvReader.read(directory.resolve("empty.csv")).isEmpty(), "no students");
+        Files.writeString(directory.resolve("one.csv"), "Ann, 1");
+        Assertions.assertEquals("1", ParallelRosterCsvReader.read(directory.resolve("one.csv")).get(0).getScoresString());
+    }
+}
@@ -0,0 +1,83 @@
+// PersistentIdentityMapTest.java
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class PersistentIdentityMapTest {
+
+    void testKeysAreComparedByIdentity() {
+        String first = new String("key");
+        String second = new String("key");
+        PersistentIdentityMap<String, Integer> map = PersistentIdentityMap.<String, Integer>empty()
+                .with(first, 1)
+                .with(second, 2);
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(1, map.get(first));
+        Assertions.assertEquals(2, map.get(second));
+        Assertions.assertEquals(null, map.get("key"));
+    }
+
+    void testOldVersionsAreUnchanged() {
+        Object a = new Object();
+        Object b = new Object();
+        PersistentIdentityMap<Object, String> empty = PersistentIdentityMap.empty();
+        PersistentIdentityMap<Object, String> one = empty.with(a, "a");
+        PersistentIdentityMap<Object, String> two = one.with(b, "b");
+        PersistentIdentityMap<Object, String> replaced = two.with(a, "A");
+        PersistentIdentityMap<Object, String> removed = replaced.without(b);
+
+        Assertions.assertEquals(0, empty.size());
+        Assertions.assertEquals(null, empty.get(a));
+        Assertions.assertEquals("a", one.get(a));
+        Assertions.assertEquals(null, one.get(b));
+        Assertions.assertEquals("a", two.get(a));
+        Assertions.assertEquals("A", replaced.get(a));
+        Assertions.assertEquals(2, replaced.size());
+        Assertions.assertEquals(1, removed.size());
+        Assertions.assertEquals(null, removed.get(b));
+        Assertions.assertEquals("b", two.get(b));
+    }
+
+    void testUnchangedMapsAreReturnedAsIs() {
+        Object a = new Object();
+        String value = "a";
+        PersistentIdentityMap<Object, String> map = PersistentIdentityMap.<Object, String>empty().with(a, value);
+        Assertions.assertTrue(map.with(a, value) == map, "same value");
+        Assertions.assertTrue(map.without(new Object()) == map, "missing key");
+        Assertions.assertTrue(map.without(a).without(a) == PersistentIdentityMap.<Object, String>empty(), "emptied");
+        Assertions.assertThrows(NullPointerException.class, () -> map.with(a, null));
+    }
+
+    // Enough keys that some share an identity hash, so collision nodes are exercised too.
+    void testMatchesAnIdentityHashMapUnderRandomEdits() {
+        Random random = new Random(7);
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            keys.add(new Object());
+        }
+        Map<Object, Integer> expected = new IdentityHashMap<>();
+        PersistentIdentityMap<Object, Integer> map = PersistentIdentityMap.empty();
+        for (int i = 0; i < 600_000; i++) {
+            Object key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                map = map.without(key);
+            } else {
+                expected.put(key, i);
+                map = map.with(key, i);
+            }
+        }
+        Assertions.assertEquals(expected.size(), map.size());
+        for (Object key : keys) {
+            Assertions.assertEquals(expected.get(key), map.get(key));
+        }
+        Map<Object, Integer> visited = new IdentityHashMap<>();
+        map.forEach((key, value) -> {
+            Assertions.assertEquals(expected.get(key), value);
+            Assertions.assertTrue(visited.put(key, value) == null, "each key is visited once");
+        });
+        Assertions.assertEquals(expected.size(), visited.size());
+    }
+}
@@ -0,0 +1,142 @@
+// RosterBatchTest.java
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class RosterBatchTest {
+
+    private static RosterService roster(int maxStudents, boolean journaled, String... names) throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), maxStudents, journaled);
+        for (String name : names) {
+            service.addStudent(name);
+        }
+        return service;
+    }
+
+    private static List<String> names(RosterService service) {
+        List<String> names = new ArrayList<>();
+        service.getRoster().forEach(student -> names.add(student.getName()));
+        return names;
+    }
+
+    void testAppliesEveryOperationInOrder() throws Exception {
+        RosterService service = roster(100, false, "Ann", "Bob", "Cy");
+        List<RosterChange> changes = new ArrayList<>();
+        service.addRosterListener(batch -> {
+            Assertions.assertTrue(changes.isEmpty(), "the batch is published as one list");
+            changes.addAll(batch);
+        });
+        RosterBatch batch = new RosterBatch();
+        batch.addStudent("Dee");
+        batch.addScores("Dee", 70, 80);
+        batch.removeStudent("Bob");
+        batch.renameStudent("Cy", "Cyrus");
+        batch.replaceScores("Ann", 100);
+        batch.addScores("Ann", 90);
+        service.applyBatch(batch);
+
+        Assertions.assertEquals(List.of("Ann", "Cyrus", "Dee"), names(service));
+        Assertions.assertEquals("70, 80", service.findStudent("Dee").getScoresString());
+        Assertions.assertEquals("100, 90", service.findStudent("Ann").getScoresString());
+        Assertions.assertEquals(null, service.findStudent("Bob"));
+        Assertions.assertTrue(service.isDirty(), "the batch marks the roster dirty");
+        Assertions.assertEquals(5, changes.size());
+        service.close();
+    }
+
+    void testAnInvalidOperationLeavesTheRosterUnchanged() throws Exception {
+        RosterService service = roster(100, false, "Ann", "Bob");
+        service.addScore(service.findStudent("Ann"), 50);
+        service.saveData();
+        List<RosterChange> changes = new ArrayList<>();
+        service.addRosterListener(changes::addAll);
+        RosterBatch batch = new RosterBatch();
+        batch.addStudent("Cy");
+        batch.addScores("Ann", 60);
+        batch.removeStudent("Bob");
+        batch.addScores("Bob", 70);
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class, () -> service.applyBatch(batch));
+
+        Assertions.assertEquals("Rejected a batch of 4 roster changes, 1 of them invalid: "
+                + "#4 add scores to \"Bob\": no such student", e.getMessage());
+        Assertions.assertEquals(List.of("Ann", "Bob"), names(service));
+        Assertions.assertEquals("50", service.findStudent("Ann").getScoresString());
+        Assertions.assertFalse(service.isDirty(), "a rejected batch changes nothing");
+        Assertions.assertTrue(changes.isEmpty(), "a rejected batch publishes nothing");
+        service.close();
+    }
+
+    void testReportsEveryProblemTogether() throws Exception {
+        RosterService service = roster(3, false, "Ann", "Bob");
+        RosterBatch batch = new RosterBatch();
+        batch.addStudent(" ");
+        batch.addStudent("ann");
+        batch.addScores("Bob", 50, 101);
+        batch.renameStudent("Bob", "Ann");
+        batch.addStudent("Cy");
+        batch.addStudent("Dee");
+        batch.renameStudent("Ann", "x".repeat(70_000));
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class, () -> service.applyBatch(batch));
+        Assertions.assertEquals("Rejected a batch of 7 roster changes, 6 of them invalid: "
+                + "#1 add \"\": the name is blank; "
+                + "#2 add \"ann\": the student already exists; "
+                + "#3 add scores to \"Bob\": score 101 is outside 0-100; "
+                + "#4 rename \"Bob\" to \"Ann\": the new name already exists; "
+                + "#6 add \"Dee\": the roster is full (3 students); "
+                + "#7 rename \"Ann\" to \"" + "x".repeat(70_000) + "\": the name is too long", e.getMessage());
+        Assertions.assertEquals(List.of("Ann", "Bob"), names(service));
+        service.close();
+    }
+
+    void testAStudentCanBeRemovedAndAddedAgainInOneBatch() throws Exception {
+        RosterService service = roster(2, false, "Ann", "Bob");
+        RosterBatch batch = new RosterBatch();
+        batch.removeStudent("Ann");
+        batch.addStudent("Ann");
+        batch.addScores("Ann", 40);
+        service.applyBatch(batch);
+        Assertions.assertEquals(List.of("Bob", "Ann"), names(service));
+        Assertions.assertEquals("40", service.findStudent("Ann").getScoresString());
+        service.close();
+    }
+
+    void testJournaledBatchesSurviveAReload() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 50\nBob, 60\n");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        RosterBatch batch = new RosterBatch();
+        batch.addScores("Ann", 90, 95);
+        batch.renameStudent("Bob", "Robert");
+        batch.addStudent("Cy");
+        service.applyBatch(batch);
+        service.close();
+        Assertions.assertEquals("Ann, 50\nBob, 60\n", Files.readString(file));
+
+        RosterService reloaded = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        Assertions.assertEquals(List.of("Ann", "Robert", "Cy"), names(reloaded));
+        Assertions.assertEquals("50, 90, 95", reloaded.findStudent("Ann").getScoresString());
+        reloaded.close();
+    }
+
+    void testTheBatcherSkipsStudentsRemovedWhileQueued() throws Exception {
+        RosterService service = roster(100, false, "Ann", "Bob");
+        Student ann = service.findStudent("Ann");
+        Student bob = service.findStudent("Bob");
+        service.removeStudent(bob);
+        service.addStudent("Bob");
+        MutationBatcher batcher = new MutationBatcher(service);
+        CompletableFuture<Integer> toAnn = batcher.addScores(ann, new int[]{80, 120, 90});
+        CompletableFuture<Integer> toOldBob = batcher.addScores(bob, new int[]{70});
+        batcher.close();
+
+        Assertions.assertEquals(2, toAnn.get());
+        Assertions.assertEquals(0, toOldBob.get());
+        Assertions.assertEquals("80, 90", ann.getScoresString());
+        Assertions.assertEquals(0, service.findStudent("Bob").getScoreCount());
+        Assertions.assertThrows(IllegalStateException.class, () -> batcher.addScores(ann, new int[]{1}));
+        service.close();
+    }
+}
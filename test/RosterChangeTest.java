@@ -0,0 +1,68 @@
+// RosterChangeTest.java
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class RosterChangeTest {
+
+    private static RosterService emptyRoster() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        return RosterService.load(new FileRosterStorage(file.toString()), 1000, false);
+    }
+
+    void testPublishesOneChangePerEdit() throws Exception {
+        RosterService service = emptyRoster();
+        List<String> changes = new ArrayList<>();
+        service.addRosterListener(batch -> batch.forEach(change -> changes.add(change.toString())));
+        service.addStudent("Ann");
+        service.addStudent("Bob");
+        Student ann = service.findStudent("Ann");
+        service.addScore(ann, 90);
+        service.renameStudent(ann, "Anna");
+        service.removeStudent(ann);
+        Assertions.assertEquals(List.of("ADDED@0 Ann", "ADDED@1 Bob", "UPDATED Ann", "UPDATED Anna", "REMOVED@0 Anna"), changes);
+        service.close();
+    }
+
+    void testChangesKeepACopyOfTheRosterInSync() throws Exception {
+        RosterService service = emptyRoster();
+        service.addStudent("Seed");
+        List<Student> mirror = new ArrayList<>();
+        mirror.addAll(service.addRosterListener(batch -> {
+            for (RosterChange change : batch) {
+                switch (change.getType()) {
+                    case ADDED -> mirror.add(change.getIndex(), change.getStudent());
+                    case REMOVED -> Assertions.assertTrue(mirror.remove(change.getIndex()) == change.getStudent(),
+                            "removed the student at the reported index");
+                    case UPDATED -> Assertions.assertTrue(mirror.contains(change.getStudent()), "updated a listed student");
+                }
+            }
+        }));
+        Random random = new Random(1);
+        for (int i = 0; i < 500; i++) {
+            List<Student> roster = service.getRoster();
+            int action = random.nextInt(3);
+            if (action == 0 || roster.isEmpty()) {
+                service.addStudent("Student " + i);
+            } else if (action == 1) {
+                service.removeStudent(roster.get(random.nextInt(roster.size())));
+            } else {
+                service.addScore(roster.get(random.nextInt(roster.size())), random.nextInt(101));
+            }
+        }
+        Assertions.assertEquals(service.getRoster(), mirror);
+        service.close();
+    }
+
+    void testRemovedListenersHearNothing() throws Exception {
+        RosterService service = emptyRoster();
+        List<RosterChange> changes = new ArrayList<>();
+        RosterListener listener = changes::addAll;
+        service.addRosterListener(listener);
+        service.removeRosterListener(listener);
+        service.addStudent("Ann");
+        Assertions.assertTrue(changes.isEmpty(), "no changes after removal");
+        service.close();
+    }
+}
@@ -0,0 +1,86 @@
+// RosterCsvReaderTest.java
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class RosterCsvReaderTest {
+
+    private static List<Student> readAll(String csv) throws Exception {
+        List<Student> students = new ArrayList<>();
+        try (RosterCsvReader reader = new RosterCsvReader(new StringReader(csv))) {
+            Student student;
+            while ((student = reader.readStudent()) != null) {
+                students.add(student);
+            }
+        }
+        return students;
+    }
+
+    void testReadsNamesAndScores() throws Exception {
+        List<Student> students = readAll("Alice Smith, 95, 88\nBob Johnson, 72\n");
+        Assertions.assertEquals(2, students.size());
+        Assertions.assertEquals("Alice Smith", students.get(0).getName());
+        Assertions.assertArrayEquals(new int[]{95, 88}, students.get(0).copyScores());
+        Assertions.assertArrayEquals(new int[]{72}, students.get(1).copyScores());
+    }
+
+    void testSkipsBlankLinesPlaceholdersAndWhitespace() throws Exception {
+        List<Student> students = readAll("\n  Carl  , N/A\r\n   \nDan,1,\t2 , 3,\nEve, \n");
+        Assertions.assertEquals(3, students.size());
+        Assertions.assertEquals("Carl", students.get(0).getName());
+        Assertions.assertEquals(0, students.get(0).getScoreCount());
+        Assertions.assertArrayEquals(new int[]{1, 2, 3}, students.get(1).copyScores());
+        Assertions.assertEquals("Eve", students.get(2).getName());
+        Assertions.assertEquals(0, students.get(2).getScoreCount());
+    }
+
+    void testLastLineWithoutNewline() throws Exception {
+        List<Student> students = readAll("Ann, 50");
+        Assertions.assertArrayEquals(new int[]{50}, students.get(0).copyScores());
+    }
+
+    void testReportsTheLineOfAnInvalidScore() {
+        NumberFormatException e = Assertions.assertThrows(NumberFormatException.class,
+                () -> readAll("Ann, 50\nBob, 7x\n"));
+        Assertions.assertEquals("Invalid score on line 2", e.getMessage());
+        Assertions.assertThrows(NumberFormatException.class, () -> readAll("Ann, 99999999999\n"));
+        Assertions.assertThrows(NumberFormatException.class, () -> readAll("Ann, N/B\n"));
+    }
+
+    void testKeepsOnlyValidScoresButReportsThemRaw() throws Exception {
+        try (RosterCsvReader reader = new RosterCsvReader(new StringReader("Ann, 101, 40, 250\n"))) {
+            Student student = reader.readStudent();
+            Assertions.assertArrayEquals(new int[]{40}, student.copyScores());
+            Assertions.assertArrayEquals(new int[]{101, 40, 250}, reader.lastScores());
+        }
+    }
+
+    void testIteratesLikeAnIterator() throws Exception {
+        try (RosterCsvReader reader = new RosterCsvReader(new StringReader("A, 1\nB, 2\n"))) {
+            Assertions.assertTrue(reader.hasNext(), "first student");
+            Assertions.assertEquals("A", reader.next().getName());
+            Assertions.assertEquals("B", reader.next().getName());
+            Assertions.assertFalse(reader.hasNext(), "no third student");
+        }
+    }
+
+    void testStorageStreamsTheRosterFile() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 90, 80\nBob, N/A\n");
+        FileRosterStorage storage = new FileRosterStorage(file.toString());
+        List<String> names = new ArrayList<>();
+        storage.forEachStudent(student -> names.add(student.getName() + "=" + student.getScoresString()));
+        Assertions.assertEquals(List.of("Ann=90, 80", "Bob=N/A"), names);
+        Assertions.assertEquals(2, storage.loadRoster().size());
+    }
+
+    void testUnreadableRosterLoadsEmptyButReadRosterReportsIt() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, abc\n");
+        FileRosterStorage storage = new FileRosterStorage(file.toString());
+        Assertions.assertTrue(storage.loadRoster().isEmpty(), "loadRoster falls back to an empty roster");
+        Assertions.assertThrows(NumberFormatException.class, storage::readRoster);
+    }
+}
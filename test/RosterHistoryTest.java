@@ -0,0 +1,128 @@
+// RosterHistoryTest.java
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+class RosterHistoryTest {
+
+    private static RosterService roster(String... names) throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 1000, false);
+        for (String name : names) {
+            service.addStudent(name);
+        }
+        return service;
+    }
+
+    private static List<String> describe(List<Student> students) {
+        List<String> lines = new ArrayList<>();
+        for (Student student : students) {
+            lines.add(student.getName() + ": " + student.getScoresString());
+        }
+        return lines;
+    }
+
+    // Waits for the clock to move on, so that versions recorded before and after get different times.
+    private static Instant tick() throws InterruptedException {
+        Thread.sleep(5);
+        Instant now = Instant.now();
+        Thread.sleep(5);
+        return now;
+    }
+
+    void testUndoAndRedoStepThroughEveryKindOfChange() throws Exception {
+        RosterService service = roster("Ann", "Bob");
+        RosterHistory history = new RosterHistory(service);
+        Assertions.assertFalse(history.canUndo(), "nothing to undo yet");
+        Student ann = service.findStudent("Ann");
+        Student bob = service.findStudent("Bob");
+        service.addScore(ann, 80);
+        service.renameStudent(ann, "Anna");
+        service.removeStudent(bob);
+        service.addStudent("Cy");
+        List<String> latest = describe(service.getRoster());
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(history.undo(), "undo " + i);
+        }
+        Assertions.assertFalse(history.undo(), "back at the start");
+        Assertions.assertEquals(List.of("Ann: N/A", "Bob: N/A"), describe(service.getRoster()));
+        Assertions.assertTrue(service.findStudent("Bob") == bob, "a removed student comes back as the same object");
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(history.redo(), "redo " + i);
+        }
+        Assertions.assertFalse(history.redo(), "back at the end");
+        Assertions.assertEquals(latest, describe(service.getRoster()));
+        history.close();
+        service.close();
+    }
+
+    void testANewChangeDropsTheRedoneVersions() throws Exception {
+        RosterService service = roster("Ann");
+        RosterHistory history = new RosterHistory(service);
+        service.addScore(service.findStudent("Ann"), 50);
+        history.undo();
+        Assertions.assertTrue(history.canRedo(), "the score can be redone");
+        service.addScore(service.findStudent("Ann"), 70);
+        Assertions.assertFalse(history.canRedo(), "the new change replaces it");
+        history.undo();
+        Assertions.assertEquals("N/A", service.findStudent("Ann").getScoresString());
+        history.close();
+        service.close();
+    }
+
+    void testAConflictingUndoIsRefused() throws Exception {
+        RosterService service = roster("Ann");
+        RosterHistory history = new RosterHistory(service);
+        Student ann = service.findStudent("Ann");
+        service.removeStudent(ann);
+        history.close();
+        service.addStudent("Ann");
+        Assertions.assertFalse(history.undo(), "the name is taken");
+        Assertions.assertTrue(service.findStudent("Ann") != ann, "the new Ann stays");
+        service.close();
+    }
+
+    void testAnswersForPointsInTime() throws Exception {
+        RosterService service = roster("Ann", "Bob");
+        Student ann = service.findStudent("Ann");
+        Instant beforeHistory = Instant.now().minusSeconds(60);
+        RosterHistory history = new RosterHistory(service);
+        Instant start = tick();
+        service.addScore(ann, 90);
+        service.removeStudent(service.findStudent("Bob"));
+        Instant middle = tick();
+        service.renameStudent(ann, "Anna");
+        service.addScore(ann, 70);
+        Instant end = tick();
+        history.undo();
+
+        Assertions.assertEquals(List.of("Ann: N/A", "Bob: N/A"), describe(history.rosterAt(start)));
+        Assertions.assertEquals(List.of("Ann: 90"), describe(history.rosterAt(middle)));
+        Assertions.assertEquals(List.of("Anna: 90, 70"), describe(history.rosterAt(end)));
+        Assertions.assertEquals(List.of("Anna: 90"), describe(history.rosterAt(Instant.now())));
+        Assertions.assertEquals("Ann", history.studentAt(ann, middle).getName());
+        Assertions.assertTrue(history.studentAt(ann, middle) != ann, "a detached copy");
+        Assertions.assertEquals(List.of(), history.rosterAt(beforeHistory));
+        Assertions.assertEquals(null, history.studentAt(ann, beforeHistory));
+        history.close();
+        service.close();
+    }
+
+    void testListenerHearsAboutEveryVersion() throws Exception {
+        RosterService service = roster("Ann");
+        RosterHistory history = new RosterHistory(service);
+        int[] calls = new int[1];
+        history.setHistoryListener(() -> calls[0]++);
+        service.addScore(service.findStudent("Ann"), 60);
+        history.undo();
+        history.redo();
+        Assertions.assertEquals(3, calls[0]);
+        history.close();
+        service.addStudent("Bob");
+        Assertions.assertEquals(3, calls[0]);
+        service.close();
+    }
+}
@@ -0,0 +1,112 @@
+// RosterHttpServerTest.java
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+
+class RosterHttpServerTest {
+
+    private static RosterService roster(String... names) throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 1000, false);
+        for (String name : names) {
+            service.addStudent(name);
+        }
+        return service;
+    }
+
+    private static HttpResponse<String> get(RosterHttpServer server, String path) throws Exception {
+        return send(server, HttpRequest.newBuilder(uri(server, path)).GET());
+    }
+
+    private static HttpResponse<String> post(RosterHttpServer server, String path, String body) throws Exception {
+        return send(server, HttpRequest.newBuilder(uri(server, path)).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private static HttpResponse<String> send(RosterHttpServer server, HttpRequest.Builder request) throws Exception {
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(RosterHttpServer server, String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+
+    void testListsPagesAndFindsStudents() throws Exception {
+        RosterService service = roster("Ann", "Bob", "Cy");
+        service.addScore(service.findStudent("Bob"), 90);
+        RosterHttpServer server = new RosterHttpServer(service, 0);
+        server.start();
+        try {
+            HttpResponse<String> page = get(server, "/students?offset=1&limit=1");
+            Assertions.assertEquals(200, page.statusCode());
+            Assertions.assertEquals("{\"total\":3,\"offset\":1,\"students\":["
+                    + "{\"name\":\"Bob\",\"scores\":[90],\"average\":90.00,\"letter\":\"A\"}]}", page.body());
+
+            HttpResponse<String> one = get(server, "/students/Ann");
+            Assertions.assertEquals(200, one.statusCode());
+            Assertions.assertEquals("{\"name\":\"Ann\",\"scores\":[],\"average\":0.00,\"letter\":\"N/A\"}", one.body());
+
+            Assertions.assertEquals(404, get(server, "/students/Nobody").statusCode());
+        } finally {
+            server.stop();
+            service.close();
+        }
+    }
+
+    void testPostedScoresAreAppliedAndCounted() throws Exception {
+        RosterService service = roster("Ann", "Bob");
+        RosterHttpServer server = new RosterHttpServer(service, 0);
+        server.start();
+        try {
+            HttpResponse<String> response = post(server, "/scores",
+                    "{\"name\":\"Ann\",\"scores\":[80,180,90]}\n"
+                            + "{\"name\":\"Bob\",\"scores\":[-4,70]}\n"
+                            + "{\"name\":\"Zed\",\"scores\":[50]}\n");
+            Assertions.assertEquals(200, response.statusCode());
+            Assertions.assertEquals("{\"records\":3,\"accepted\":3,\"rejected\":2,\"unknownStudents\":1}", response.body());
+            Assertions.assertArrayEquals(new int[]{80, 90}, service.findStudent("Ann").copyScores());
+            Assertions.assertArrayEquals(new int[]{70}, service.findStudent("Bob").copyScores());
+            Assertions.assertTrue(service.isDirty(), "posted scores mark the roster dirty");
+        } finally {
+            server.stop();
+            service.close();
+        }
+    }
+
+    void testReportsClassStatistics() throws Exception {
+        RosterService service = roster("Ann", "Bob", "Cy");
+        service.addScore(service.findStudent("Ann"), 95);
+        service.addScore(service.findStudent("Bob"), 75);
+        RosterHttpServer server = new RosterHttpServer(service, 0);
+        server.start();
+        try {
+            String body = get(server, "/stats").body();
+            Assertions.assertTrue(body.startsWith("{\"students\":3,\"graded\":2,\"mean\":85.00,"), body);
+            Assertions.assertTrue(body.contains("\"letters\":{\"A\":1,\"C\":1}"), body);
+        } finally {
+            server.stop();
+            service.close();
+        }
+    }
+
+    void testRejectsUnknownPathsAndWrongMethods() throws Exception {
+        RosterService service = roster("Ann");
+        RosterHttpServer server = new RosterHttpServer(service, 0);
+        server.start();
+        try {
+            for (String path : List.of("/studentsX", "/scores/Ann", "/statsX", "/")) {
+                Assertions.assertEquals(404, get(server, path).statusCode());
+            }
+            HttpResponse<String> wrongMethod = get(server, "/scores");
+            Assertions.assertEquals(405, wrongMethod.statusCode());
+            Assertions.assertEquals("{\"error\":\"Use POST\"}", wrongMethod.body());
+            Assertions.assertEquals(400, get(server, "/students?limit=ten").statusCode());
+            Assertions.assertEquals(400, post(server, "/scores", "{\"name\":").statusCode());
+        } finally {
+            server.stop();
+            service.close();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+// RosterJournalTest.java
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class RosterJournalTest {
+
+    // Records every replayed mutation as a line of text.
+    private static final class Recorder implements RosterJournal.Replay {
+        final List<String> records = new ArrayList<>();
+
+        public void studentAdded(String name) { records.add("add " + name); }
+        public void studentRemoved(String name) { records.add("remove " + name); }
+        public void studentRenamed(String oldName, String newName) { records.add("rename " + oldName + " " + newName); }
+        public void scoreAdded(String name, int score) { records.add("score " + name + " " + score); }
+        public void scoresSet(String name, int[] scores) { records.add("set " + name + " " + Arrays.toString(scores)); }
+    }
+
+    private static List<String> replay(Path journal) throws IOException {
+        Recorder recorder = new Recorder();
+        RosterJournal.replay(journal, recorder);
+        return recorder.records;
+    }
+
+    void testReplaysEveryRecordInOrder() throws Exception {
+        Path path = Assertions.tempDirectory().resolve("roster.journal");
+        RosterJournal journal = new RosterJournal(path, 0, RosterJournal.DEFAULT_COMPACTION_THRESHOLD);
+        Student ann = new Student("Ann");
+        ann.setScores(new int[]{70, 80}, 2);
+        journal.recordStudentAdded("Ann");
+        journal.recordScoreAdded("Ann", 95);
+        journal.recordScoresSet(ann);
+        journal.recordStudentRenamed("Ann", "Anna");
+        journal.recordStudentRemoved("Anna");
+        journal.close();
+        Assertions.assertEquals(List.of("add Ann", "score Ann 95", "set Ann [70, 80]", "rename Ann Anna", "remove Anna"),
+                replay(path));
+        Assertions.assertTrue(replay(path.resolveSibling("missing.journal")).isEmpty(), "a missing journal replays nothing");
+    }
+
+    void testATornTailIsCutOffAndLaterRecordsFollowTheValidPrefix() throws Exception {
+        Path path = Assertions.tempDirectory().resolve("roster.journal");
+        RosterJournal journal = new RosterJournal(path, 0, RosterJournal.DEFAULT_COMPACTION_THRESHOLD);
+        journal.recordStudentAdded("Ann");
+        journal.recordScoreAdded("Ann", 50);
+        journal.close();
+        long complete = Files.size(path);
+        // A crash in the middle of a write leaves part of a record behind.
+        Files.write(path, new byte[]{'S', 0, 3, 'B'}, StandardOpenOption.APPEND);
+
+        Recorder recorder = new Recorder();
+        Assertions.assertEquals(complete, RosterJournal.replay(path, recorder));
+        Assertions.assertEquals(List.of("add Ann", "score Ann 50"), recorder.records);
+
+        journal = new RosterJournal(path, complete, RosterJournal.DEFAULT_COMPACTION_THRESHOLD);
+        journal.recordScoreAdded("Ann", 60);
+        journal.close();
+        Assertions.assertEquals(List.of("add Ann", "score Ann 50", "score Ann 60"), replay(path));
+    }
+
+    void testJournaledEditsSurviveWithoutASnapshot() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 50\nBob, 60\n");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        service.addScore(service.findStudent("Ann"), 70);
+        service.updateStudentScores(service.findStudent("Bob"), new int[]{1, 2});
+        service.renameStudent(service.findStudent("Bob"), "Robert");
+        service.addStudent("Cy");
+        service.removeStudent(service.findStudent("Cy"));
+        service.close();
+        Assertions.assertEquals("Ann, 50\nBob, 60\n", Files.readString(file));
+
+        RosterService reloaded = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        Assertions.assertEquals("50, 70", reloaded.findStudent("Ann").getScoresString());
+        Assertions.assertEquals("1, 2", reloaded.findStudent("Robert").getScoresString());
+        Assertions.assertEquals(null, reloaded.findStudent("Cy"));
+        Assertions.assertFalse(reloaded.isDirty(), "replayed changes are already durable");
+        reloaded.close();
+    }
+
+    void testCheckpointFoldsTheJournalIntoTheSnapshot() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Path journalFile = file.resolveSibling("roster.journal");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        service.addStudent("Ann");
+        service.addScore(service.findStudent("Ann"), 90);
+        Assertions.assertTrue(service.saveIfDirty(), "a flushed journal counts as saved");
+        Assertions.assertFalse(service.isDirty(), "saved");
+        Assertions.assertTrue(Files.size(journalFile) > 0, "the change is in the journal");
+        Assertions.assertTrue(service.saveData(), "checkpoint");
+        Assertions.assertEquals(0L, Files.size(journalFile));
+        Assertions.assertEquals("Ann, 90", Files.readString(file).trim());
+        service.close();
+
+        RosterService reloaded = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        Assertions.assertEquals("90", reloaded.findStudent("Ann").getScoresString());
+        reloaded.close();
+    }
+
+    void testAJournalThatCannotBeReopenedIsFoldedInOnceNotReplayedTwice() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 50\n");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        service.addScore(service.findStudent("Ann"), 60);
+        service.close();
+
+        FileRosterStorage failingJournal = new FileRosterStorage(file.toString()) {
+            @Override
+            public RosterJournal openJournal(long validLength) throws IOException {
+                throw new IOException("journal is not writable");
+            }
+        };
+        RosterService folded = RosterService.load(failingJournal, 100, true);
+        Assertions.assertEquals("50, 60", folded.findStudent("Ann").getScoresString());
+        folded.close();
+        Assertions.assertEquals("Ann, 50, 60", Files.readString(file).trim());
+        Assertions.assertEquals(0L, Files.size(file.resolveSibling("roster.journal")));
+
+        RosterService reloaded = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        Assertions.assertEquals("50, 60", reloaded.findStudent("Ann").getScoresString());
+        reloaded.close();
+    }
+
+    void testARecordTooLongToEncodeLeavesTheJournalIntact() throws Exception {
+        Path path = Assertions.tempDirectory().resolve("roster.journal");
+        RosterJournal journal = new RosterJournal(path, 0, RosterJournal.DEFAULT_COMPACTION_THRESHOLD);
+        String longName = "\u00e9".repeat(40_000);
+        Assertions.assertFalse(RosterJournal.fitsRecord(longName), "80000 bytes of UTF-8");
+        Assertions.assertTrue(RosterJournal.fitsRecord("\u00e9".repeat(30_000)), "60000 bytes of UTF-8");
+        journal.recordStudentAdded("Ann");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> journal.recordStudentRenamed("Ann", longName));
+        journal.recordScoreAdded("Ann", 60);
+        journal.close();
+        Assertions.assertEquals(List.of("add Ann", "score Ann 60"), replay(path));
+    }
+
+    void testNamesTooLongForTheJournalAreRefusedBeforeAnythingChanges() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        String longName = "x".repeat(70_000);
+        List<RosterChange> changes = new ArrayList<>();
+        service.addRosterListener(changes::addAll);
+        Assertions.assertFalse(service.addStudent(longName), "too long to add");
+        service.addStudent("Ann");
+        Assertions.assertFalse(service.renameStudent(service.findStudent("Ann"), longName), "too long to rename to");
+        Assertions.assertEquals(1, service.size());
+        Assertions.assertEquals(1, changes.size());
+        service.close();
+
+        RosterService reloaded = RosterService.load(new FileRosterStorage(file.toString()), 100, true);
+        Assertions.assertEquals("Ann", reloaded.getRoster().get(0).getName());
+        Assertions.assertEquals(1, reloaded.size());
+        reloaded.close();
+    }
+}
@@ -0,0 +1,54 @@
+// RosterListTest.java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class RosterListTest {
+
+    void testRemovalReportsTheIndexAndKeepsTheOrder() {
+        RosterList list = new RosterList(0);
+        Student ann = new Student("Ann");
+        Student bob = new Student("Bob");
+        Student cy = new Student("Cy");
+        list.add(ann);
+        list.add(bob);
+        list.add(cy);
+        Assertions.assertEquals(1, list.removeStudent(bob));
+        Assertions.assertEquals(-1, list.removeStudent(bob));
+        Assertions.assertEquals(List.of(ann, cy), new ArrayList<>(list));
+        Assertions.assertEquals(1, list.indexOf(cy));
+        Assertions.assertEquals(cy, list.get(1));
+        Assertions.assertEquals(List.of(cy), list.copyRange(1, 2));
+        Assertions.assertFalse(new RosterList(0).contains(ann), "another list does not hold it");
+    }
+
+    void testMatchesAnArrayListUnderRandomEdits() {
+        Random random = new Random(42);
+        RosterList list = new RosterList(4);
+        List<Student> expected = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            // Grows to a few thousand students and shrinks back, so both growth and compaction run.
+            boolean add = expected.isEmpty() || random.nextInt(100) < (step % 8_000 < 5_000 ? 70 : 30);
+            if (add) {
+                Student student = new Student("S" + step);
+                list.add(student);
+                expected.add(student);
+            } else {
+                int index = random.nextInt(expected.size());
+                Student student = expected.remove(index);
+                Assertions.assertEquals(index, list.removeStudent(student));
+            }
+            if (step % 500 == 0) {
+                Assertions.assertEquals(expected, new ArrayList<>(list));
+                Assertions.assertEquals(expected, List.of(list.toArray(new Student[0])));
+                for (int i = 0; i < expected.size(); i += 7) {
+                    Assertions.assertTrue(list.get(i) == expected.get(i), "get " + i);
+                    Assertions.assertEquals(i, list.indexOf(expected.get(i)));
+                }
+                int from = expected.size() / 3;
+                Assertions.assertEquals(expected.subList(from, expected.size()), list.copyRange(from, expected.size()));
+            }
+        }
+        Assertions.assertEquals(expected.size(), list.size());
+    }
+}
@@ -0,0 +1,139 @@
+// RosterServiceTest.java
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class RosterServiceTest {
+
+    private static RosterService emptyRoster(int maxStudents) throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        return RosterService.load(new FileRosterStorage(file.toString()), maxStudents, false);
+    }
+
+    void testFindsStudentsIgnoringCaseAndSurroundingSpace() throws Exception {
+        RosterService service = emptyRoster(10);
+        Assertions.assertTrue(service.addStudent("  Ann Lee "), "added");
+        Student ann = service.findStudent("ann lee");
+        Assertions.assertEquals("Ann Lee", ann.getName());
+        Assertions.assertTrue(service.findStudent(" ANN LEE") == ann, "same student");
+        Assertions.assertEquals(null, service.findStudent("Ann"));
+        service.close();
+    }
+
+    void testRejectsBlankAndDuplicateNames() throws Exception {
+        RosterService service = emptyRoster(10);
+        Assertions.assertTrue(service.addStudent("Ann"), "added");
+        Assertions.assertFalse(service.addStudent("ANN"), "duplicate name, ignoring case");
+        Assertions.assertFalse(service.addStudent("   "), "blank name");
+        Assertions.assertEquals(1, service.size());
+        service.close();
+    }
+
+    void testStopsAtTheCapacity() throws Exception {
+        RosterService service = emptyRoster(2);
+        Assertions.assertTrue(service.addStudent("A"), "first");
+        Assertions.assertTrue(service.addStudent("B"), "second");
+        Assertions.assertFalse(service.addStudent("C"), "roster is full");
+        Assertions.assertEquals(2, service.getMaxStudents());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> emptyRoster(0));
+        service.close();
+    }
+
+    void testRenameAndRemoveKeepTheIndexInStep() throws Exception {
+        RosterService service = emptyRoster(10);
+        service.addStudent("Ann");
+        service.addStudent("Bob");
+        Student ann = service.findStudent("Ann");
+        Assertions.assertFalse(service.renameStudent(ann, "bob"), "name taken by another student");
+        Assertions.assertTrue(service.renameStudent(ann, "Anna"), "renamed");
+        Assertions.assertEquals(null, service.findStudent("Ann"));
+        Assertions.assertTrue(service.findStudent("anna") == ann, "found by the new name");
+
+        Assertions.assertTrue(service.removeStudent(ann), "removed");
+        Assertions.assertFalse(service.removeStudent(ann), "already removed");
+        Assertions.assertEquals(null, service.findStudent("Anna"));
+        Assertions.assertTrue(service.addStudent("Anna"), "the name is free again");
+        service.close();
+    }
+
+    void testLoadKeepsTheFirstOfDuplicateNames() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 10\nBob, 20\nann, 30\n");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 10, false);
+        Assertions.assertEquals(2, service.size());
+        Assertions.assertArrayEquals(new int[]{10}, service.findStudent("ANN").copyScores());
+        service.close();
+    }
+
+    void testPagesThroughTheRoster() throws Exception {
+        RosterService service = emptyRoster(10);
+        for (String name : List.of("A", "B", "C", "D", "E")) {
+            service.addStudent(name);
+        }
+        Assertions.assertEquals(List.of("B", "C"), service.getPage(1, 2).stream().map(Student::getName).toList());
+        Assertions.assertEquals(List.of("E"), service.getPage(4, 10).stream().map(Student::getName).toList());
+        Assertions.assertTrue(service.getPage(9, 10).isEmpty(), "past the end");
+        service.close();
+    }
+
+    void testScoreEditsValidateTheirInput() throws Exception {
+        RosterService service = emptyRoster(10);
+        service.addStudent("Ann");
+        Student ann = service.findStudent("Ann");
+        Assertions.assertTrue(service.addScore(ann, 90), "valid score");
+        Assertions.assertFalse(service.addScore(ann, 101), "score above 100");
+        Assertions.assertTrue(service.updateStudentScores(ann, new int[]{70, 80}), "replaced");
+        Assertions.assertArrayEquals(new int[]{70, 80}, ann.copyScores());
+        service.close();
+    }
+
+    void testLoadsAsynchronouslyReportingEachStudentRead() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 50\nBob, 60, 70\nann, 10\n");
+        ExecutorService io = Executors.newSingleThreadExecutor(task -> new Thread(task, "roster-io"));
+        try {
+            List<String> read = Collections.synchronizedList(new ArrayList<>());
+            RosterService service = RosterService.loadAsync(new FileRosterStorage(file.toString()), 10, false,
+                    student -> read.add(Thread.currentThread().getName() + " " + student.getName()), io).get();
+            Assertions.assertEquals(List.of("roster-io Ann", "roster-io Bob", "roster-io ann"), read);
+            Assertions.assertEquals(2, service.size());
+            Assertions.assertEquals("60, 70", service.findStudent("Bob").getScoresString());
+
+            service.addScore(service.findStudent("Ann"), 80);
+            Assertions.assertTrue(service.isDirty(), "edited");
+            Assertions.assertTrue(service.saveDataAsync(io).get(), "saved");
+            Assertions.assertFalse(service.isDirty(), "saved in the background");
+            Assertions.assertEquals("Ann, 50, 80\nBob, 60, 70\n", Files.readString(file));
+            service.close();
+        } finally {
+            io.shutdown();
+        }
+    }
+
+    void testAFailedLoadSeedsNothingAndSavesNothing() throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        Files.writeString(file, "Ann, 50\nBob, sixty\n");
+        RosterService service = new RosterService(new FileRosterStorage(file.toString()), 10, false);
+        Assertions.assertEquals(0, service.size());
+        Assertions.assertFalse(service.isDirty(), "no demo data after a failed load");
+        Assertions.assertFalse(service.saveIfDirty(), "nothing to save");
+        Assertions.assertEquals("Ann, 50\nBob, sixty\n", Files.readString(file));
+        service.close();
+
+        ExecutorService io = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<RosterService> loading = RosterService.loadAsync(new FileRosterStorage(file.toString()), 10, false,
+                    student -> { }, io);
+            Assertions.assertThrows(ExecutionException.class, loading::get);
+            Assertions.assertEquals("Ann, 50\nBob, sixty\n", Files.readString(file));
+        } finally {
+            io.shutdown();
+        }
+    }
+}
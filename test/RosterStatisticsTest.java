@@ -0,0 +1,74 @@
+// RosterStatisticsTest.java
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class RosterStatisticsTest {
+
+    private static RosterService roster(int... averages) throws Exception {
+        Path file = Assertions.tempDirectory().resolve("roster.csv");
+        RosterService service = RosterService.load(new FileRosterStorage(file.toString()), 10_000, false);
+        for (int i = 0; i < averages.length; i++) {
+            service.addStudent("Student " + i);
+            service.addScore(service.findStudent("Student " + i), averages[i]);
+        }
+        return service;
+    }
+
+    void testDescribesTheClass() throws Exception {
+        RosterService service = roster(95, 85, 85, 70, 50);
+        service.addStudent("Ungraded");
+        RosterStatistics statistics = new RosterStatistics(service);
+        Assertions.assertEquals(6, statistics.getStudentCount());
+        Assertions.assertEquals(5, statistics.getGradedCount());
+        Assertions.assertEquals(77.0, statistics.getMean(), 1e-9);
+        Assertions.assertEquals(85.0, statistics.getMedian(), 1e-9);
+        Assertions.assertEquals(60.0, statistics.getPercentile(12.5), 1e-9);
+        Assertions.assertEquals(95.0, statistics.getPercentile(100), 1e-9);
+        Assertions.assertEquals(2, statistics.rankOf(service.findStudent("Student 1")));
+        Assertions.assertEquals(2, statistics.rankOf(service.findStudent("Student 2")));
+        Assertions.assertEquals(4, statistics.rankOf(service.findStudent("Student 3")));
+        Assertions.assertEquals(0, statistics.rankOf(service.findStudent("Ungraded")));
+        Assertions.assertEquals(40.0, statistics.percentileRankOf(service.findStudent("Student 1")), 1e-9);
+        Assertions.assertEquals(List.of("Student 0"), statistics.topK(1).stream().map(Student::getName).toList());
+        Assertions.assertEquals(2, statistics.getHistogram()[85]);
+        Assertions.assertEquals(Map.of("A", 1, "B", 2, "C", 1, "F", 1), statistics.getLetterCounts());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> statistics.getPercentile(101));
+        statistics.close();
+        service.close();
+    }
+
+    void testStaysEqualToARecountAfterEveryKindOfEdit() throws Exception {
+        RosterService service = roster(10, 20, 30);
+        RosterStatistics statistics = new RosterStatistics(service);
+        Random random = new Random(5);
+        for (int i = 0; i < 300; i++) {
+            List<Student> students = service.getRoster();
+            Student student = students.isEmpty() ? null : students.get(random.nextInt(students.size()));
+            switch (random.nextInt(4)) {
+                case 0 -> service.addStudent("Added " + i);
+                case 1 -> { if (student != null) service.removeStudent(student); }
+                case 2 -> { if (student != null) service.addScore(student, random.nextInt(101)); }
+                default -> { if (student != null) service.updateStudentScores(student, new int[]{random.nextInt(101)}); }
+            }
+        }
+        double[] averages = service.getRoster().stream()
+                .filter(student -> student.getScoreCount() > 0)
+                .mapToDouble(Student::calculateAverage)
+                .sorted()
+                .toArray();
+        int[] histogram = new int[101];
+        for (double average : averages) {
+            histogram[(int) Math.round(average)]++;
+        }
+        Assertions.assertEquals(averages.length, statistics.getGradedCount());
+        Assertions.assertEquals(Arrays.stream(averages).average().orElse(0), statistics.getMean(), 1e-9);
+        Assertions.assertEquals(averages.length == 0 ? 0 : averages[(averages.length - 1) / 2], statistics.getPercentile(
+                averages.length <= 1 ? 0 : 100.0 * ((averages.length - 1) / 2) / (averages.length - 1)), 1e-9);
+        Assertions.assertArrayEquals(histogram, statistics.getHistogram());
+        statistics.close();
+        service.close();
+    }
+}
@@ -0,0 +1,80 @@
+// StudentTest.java
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.IntStream;
+
+class StudentTest {
+
+    void testAggregatesFollowEveryEdit() {
+        Student student = new Student("Ann");
+        Assertions.assertEquals(0, student.getMinScore());
+        Assertions.assertEquals(0, student.getMaxScore());
+        student.addScore(70);
+        student.addScore(95);
+        student.addScore(40);
+        Assertions.assertEquals(205L, student.getScoreSum());
+        Assertions.assertEquals(40, student.getMinScore());
+        Assertions.assertEquals(95, student.getMaxScore());
+        Assertions.assertEquals(205 / 3.0, student.calculateAverage(), 1e-9);
+
+        student.setScores(List.of(100, 60));
+        Assertions.assertEquals(160L, student.getScoreSum());
+        Assertions.assertEquals(60, student.getMinScore());
+        Assertions.assertEquals(80.0, student.calculateAverage(), 1e-9);
+        Assertions.assertEquals("B", student.getLetterScore());
+    }
+
+    void testOutOfRangeScoresAreIgnored() {
+        Student student = new Student("Ann");
+        student.addScore(-1);
+        student.addScore(101);
+        Assertions.assertEquals(0, student.getScoreCount());
+        student.setScores(new int[]{50, 200, -5, 100, 7}, 4);
+        Assertions.assertArrayEquals(new int[]{50, 100}, student.copyScores());
+    }
+
+    void testGrowsPastTheInitialCapacity() {
+        Student student = new Student("Ann");
+        for (int i = 0; i < 100; i++) {
+            student.addScore(i);
+        }
+        Assertions.assertEquals(100, student.getScoreCount());
+        Assertions.assertEquals(99, student.getScore(99));
+        Assertions.assertEquals(4950L, student.getScoreSum());
+        Assertions.assertTrue(student.heapScoreBytes() >= 100, "scores are held on the heap");
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> student.getScore(100));
+    }
+
+    void testCopyAndScoreStreamAreDetachedFromLaterEdits() {
+        Student student = new Student("Ann");
+        student.setScores(List.of(10, 20));
+        Student copy = student.copy();
+        IntStream stream = student.scoreStream();
+        student.setScores(List.of(90));
+        Assertions.assertArrayEquals(new int[]{10, 20}, stream.toArray());
+        Assertions.assertArrayEquals(new int[]{10, 20}, copy.copyScores());
+        Assertions.assertEquals(15.0, copy.calculateAverage(), 1e-9);
+    }
+
+    void testFormatsScores() {
+        Student student = new Student("Ann");
+        Assertions.assertEquals("N/A", student.getScoresString());
+        student.setScores(List.of(1, 22, 100));
+        Assertions.assertEquals("1, 22, 100", student.getScoresString());
+        int[] total = {0};
+        student.forEachScore(score -> total[0] += score);
+        Assertions.assertEquals(123, total[0]);
+    }
+
+    void testMappedScoresMoveToTheHeapOnTheFirstEdit() {
+        ByteBuffer mapped = ByteBuffer.wrap(new byte[]{0, 0, 80, 90});
+        Student student = new Student("Ann");
+        student.attachScores(mapped, 2, 2, 170, 80, 90);
+        Assertions.assertEquals(0, student.heapScoreBytes());
+        Assertions.assertEquals(85.0, student.calculateAverage(), 1e-9);
+        student.addScore(100);
+        Assertions.assertArrayEquals(new int[]{80, 90, 100}, student.copyScores());
+        Assertions.assertTrue(student.heapScoreBytes() > 0, "edited scores are held on the heap");
+        Assertions.assertEquals(80, mapped.get(2) & 0xFF);
+    }
+}